@@ -0,0 +1,36 @@
+package com.example.configuration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+//counts JDBC statements per API call and reports calls over budget, used to catch round trip regressions
+@Configuration
+@ConditionalOnProperty(name = "jdbc.statement-budget.enabled", havingValue = "true")
+public class JdbcStatementBudgetConfiguration {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource && !(bean instanceof StatementCountingDataSource)
+                        ? new StatementCountingDataSource((DataSource) bean) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<JdbcStatementBudgetFilter> jdbcStatementBudgetFilter(
+            @Value("${jdbc.statement-budget.max-statements:10}") int maxStatements) {
+        FilterRegistrationBean<JdbcStatementBudgetFilter> registrationBean =
+                new FilterRegistrationBean<>(new JdbcStatementBudgetFilter(maxStatements));
+        registrationBean.addUrlPatterns("/job/*", "/jobDetail/*", "/log/*");
+        return registrationBean;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.configuration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+//calls over budget are only reported, budgets are asserted by tests
+@Log4j2
+@RequiredArgsConstructor
+class JdbcStatementBudgetFilter extends OncePerRequestFilter {
+
+    private final int maxStatements;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        JdbcStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statementCount = JdbcStatementCounter.stop();
+            if (statementCount > maxStatements) {
+                log.warn("Request {} {} executed {} JDBC statements, budget is {}",
+                        request.getMethod(), request.getRequestURI(), statementCount, maxStatements);
+            } else {
+                log.debug("Request {} {} executed {} JDBC statements",
+                        request.getMethod(), request.getRequestURI(), statementCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.configuration;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+//counts JDBC statements executed by the current request thread, threads without started counter are not counted
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class JdbcStatementCounter {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    static void start() {
+        COUNT.set(new AtomicInteger());
+    }
+
+    static int stop() {
+        AtomicInteger count = COUNT.get();
+        COUNT.remove();
+        return isNull(count) ? 0 : count.get();
+    }
+
+    static void increment() {
+        AtomicInteger count = COUNT.get();
+        if (nonNull(count)) {
+            count.incrementAndGet();
+        }
+    }
+}
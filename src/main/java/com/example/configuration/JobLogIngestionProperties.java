@@ -0,0 +1,20 @@
+package com.example.configuration;
+
+import com.example.domain.JobLogLevel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "job.log.ingestion")
+public class JobLogIngestionProperties {
+
+    private boolean enabled = true;
+    private Map<String, JobLogLevel> minLevels = new HashMap<>();
+    private int infoSampleRate = 1;
+    private double infoRateLimitPerSecond = 0;
+}
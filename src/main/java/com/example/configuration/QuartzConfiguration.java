@@ -1,8 +1,19 @@
 package com.example.configuration;
 
+import com.example.job.JobLogPartitionJob;
+import com.example.job.MessageArchiveJob;
+import com.example.service.SchedulerEventListener;
+import com.example.service.SchedulerStateListener;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.quartz.QuartzDataSource;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
@@ -16,6 +27,8 @@ import javax.sql.DataSource;
 @EnableAutoConfiguration
 public class QuartzConfiguration {
 
+    private static final String MAINTENANCE_GROUP_NAME = "maintenance";
+
     @Bean
     @QuartzDataSource
     @ConfigurationProperties(prefix = "spring.datasource")
@@ -24,10 +37,64 @@ public class QuartzConfiguration {
     }
 
     @Bean
-    public Scheduler scheduler(SchedulerFactoryBean schedulerFactory) throws SchedulerException {
+    public Scheduler scheduler(SchedulerFactoryBean schedulerFactory,
+                               SchedulerEventListener schedulerEventListener,
+                               SchedulerStateListener schedulerStateListener) throws SchedulerException {
         Scheduler scheduler = schedulerFactory.getScheduler();
+        //listeners are notified in registration order, event listener reads the cache before state listener changes it
+        scheduler.getListenerManager().addSchedulerListener(schedulerEventListener);
+        scheduler.getListenerManager().addTriggerListener(schedulerEventListener);
+        scheduler.getListenerManager().addSchedulerListener(schedulerStateListener);
+        scheduler.getListenerManager().addTriggerListener(schedulerStateListener);
+        scheduler.getListenerManager().addJobListener(schedulerStateListener);
         scheduler.start();
-//        scheduler.getListenerManager().addTriggerListener(new MessageTriggerListener(this));
         return scheduler;
     }
+
+    //built-in jobs are registered by spring boot quartz auto-configuration and are not overwritten once stored
+    @Bean
+    @ConditionalOnProperty(name = "job.log.partition.enabled", havingValue = "true")
+    public JobDetail jobLogPartitionJobDetail() {
+        return JobBuilder.newJob(JobLogPartitionJob.class)
+                .withIdentity(JobLogPartitionJob.class.getSimpleName(), MAINTENANCE_GROUP_NAME)
+                .withDescription("Creates future job_logs partitions and drops expired ones")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "job.log.partition.enabled", havingValue = "true")
+    public Trigger jobLogPartitionTrigger(JobDetail jobLogPartitionJobDetail,
+                                          @Value("${job.log.partition.cron}") String cronExpression) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity(JobLogPartitionJob.class.getSimpleName(), MAINTENANCE_GROUP_NAME)
+                .withSchedule(CronScheduleBuilder.cronSchedule(cronExpression)
+                        .withMisfireHandlingInstructionFireAndProceed())
+                .forJob(jobLogPartitionJobDetail)
+                .startNow()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "message.archive.enabled", havingValue = "true")
+    public JobDetail messageArchiveJobDetail() {
+        return JobBuilder.newJob(MessageArchiveJob.class)
+                .withIdentity(MessageArchiveJob.class.getSimpleName(), MAINTENANCE_GROUP_NAME)
+                .withDescription("Moves expired messages to messages_archive in small chunks")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "message.archive.enabled", havingValue = "true")
+    public Trigger messageArchiveTrigger(JobDetail messageArchiveJobDetail,
+                                         @Value("${message.archive.cron}") String cronExpression) {
+        return TriggerBuilder.newTrigger()
+                .withIdentity(MessageArchiveJob.class.getSimpleName(), MAINTENANCE_GROUP_NAME)
+                .withSchedule(CronScheduleBuilder.cronSchedule(cronExpression)
+                        .withMisfireHandlingInstructionFireAndProceed())
+                .forJob(messageArchiveJobDetail)
+                .startNow()
+                .build();
+    }
 }
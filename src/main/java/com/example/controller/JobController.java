@@ -1,14 +1,33 @@
 package com.example.controller;
 
-import com.example.domain.JobExecutionDetails;
+import com.example.domain.FireTimeForecastDto;
+import com.example.domain.FireTimeForecastParameters;
+import com.example.domain.GroupOperationDto;
+import com.example.domain.GroupOperationType;
+import com.example.domain.JobExecutionDetailsPage;
+import com.example.domain.JobExecutionDetailsParameters;
+import com.example.domain.ScheduledFireDto;
+import com.example.domain.SchedulerStateCacheStatsDto;
 import com.example.domain.TriggerDto;
+import com.example.domain.TriggerScheduleResultDto;
+import com.example.service.FireTimeForecastService;
+import com.example.service.GroupOperationService;
+import com.example.service.JobBatchService;
 import com.example.service.JobService;
+import com.example.service.SchedulerCommandService;
+import com.example.service.SchedulerEventService;
+import com.example.service.SchedulerStateService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
@@ -16,55 +35,137 @@ import java.util.List;
 public class JobController {
 
     private final JobService jobService;
+    private final JobBatchService jobBatchService;
+    private final FireTimeForecastService fireTimeForecastService;
+    private final GroupOperationService groupOperationService;
+    private final SchedulerCommandService schedulerCommandService;
+    private final SchedulerStateService schedulerStateService;
+    private final SchedulerEventService schedulerEventService;
 
     @GetMapping("info")
-    public ResponseEntity<List<JobExecutionDetails>> getScheduledJobs() {
-        List<JobExecutionDetails> scheduledJobs = jobService.getScheduledJobs();
+    public ResponseEntity<JobExecutionDetailsPage> getScheduledJobs(JobExecutionDetailsParameters parameters,
+                                                                    WebRequest webRequest) {
+        if (webRequest.checkNotModified(schedulerStateService.getJobExecutionDetailsETag())) {
+            return null;
+        }
+        JobExecutionDetailsPage scheduledJobs = jobService.getScheduledJobs(parameters);
         return new ResponseEntity<>(scheduledJobs, HttpStatus.OK);
     }
 
+    @GetMapping("forecast")
+    public ResponseEntity<FireTimeForecastDto> getFireTimeForecast(FireTimeForecastParameters parameters) {
+        FireTimeForecastDto fireTimeForecast = fireTimeForecastService.getFireCounts(parameters);
+        return new ResponseEntity<>(fireTimeForecast, HttpStatus.OK);
+    }
+
+    @GetMapping("forecast/next")
+    public ResponseEntity<Map<String, List<ScheduledFireDto>>> getNextFires(FireTimeForecastParameters parameters) {
+        Map<String, List<ScheduledFireDto>> nextFires = fireTimeForecastService.getNextFires(parameters);
+        return new ResponseEntity<>(nextFires, HttpStatus.OK);
+    }
+
+    @GetMapping("cache/stats")
+    public ResponseEntity<SchedulerStateCacheStatsDto> getCacheStats() {
+        SchedulerStateCacheStatsDto cacheStats = schedulerStateService.getCacheStats();
+        return new ResponseEntity<>(cacheStats, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getSchedulerEvents() {
+        return schedulerEventService.subscribe();
+    }
+
     @PostMapping("run")
     public ResponseEntity<Boolean> scheduleJob(@RequestBody TriggerDto triggerDto) {
         boolean isJobScheduled = jobService.scheduleJob(triggerDto);
         return new ResponseEntity<>(isJobScheduled, HttpStatus.OK);
     }
 
+    @PostMapping("run/batch")
+    public ResponseEntity<List<TriggerScheduleResultDto>> scheduleJobs(@RequestBody List<TriggerDto> triggerDtoList) {
+        List<TriggerScheduleResultDto> scheduleResults = jobBatchService.scheduleJobs(triggerDtoList);
+        return new ResponseEntity<>(scheduleResults, HttpStatus.OK);
+    }
+
     @PostMapping("stop/{triggerId}/{triggerGroupName}")
-    public ResponseEntity<Boolean> stopScheduledJob(@PathVariable String triggerId,
-                                                    @PathVariable String triggerGroupName) {
-        boolean isJobStopped = jobService.stopScheduledJob(triggerId, triggerGroupName);
-        return new ResponseEntity<>(isJobStopped, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Boolean>> stopScheduledJob(@PathVariable String triggerId,
+                                                                       @PathVariable String triggerGroupName) {
+        return schedulerCommandService.stopScheduledJob(triggerId, triggerGroupName)
+                .thenApply(isJobStopped -> new ResponseEntity<>(isJobStopped, HttpStatus.OK));
     }
 
     @PostMapping("pause/{jobId}/{jobGroupName}")
-    public ResponseEntity<Boolean> pauseJob(@PathVariable String jobId, @PathVariable String jobGroupName) {
-        boolean isJobPaused = jobService.pauseJob(jobId, jobGroupName);
-        return new ResponseEntity<>(isJobPaused, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Boolean>> pauseJob(@PathVariable String jobId,
+                                                               @PathVariable String jobGroupName) {
+        return schedulerCommandService.pauseJob(jobId, jobGroupName)
+                .thenApply(isJobPaused -> new ResponseEntity<>(isJobPaused, HttpStatus.OK));
     }
 
     @PostMapping("resume/{jobId}/{jobGroupName}")
-    public ResponseEntity<Boolean> resumeJob(@PathVariable String jobId, @PathVariable String jobGroupName) {
-        boolean isJobResumed = jobService.resumeJob(jobId, jobGroupName);
-        return new ResponseEntity<>(isJobResumed, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Boolean>> resumeJob(@PathVariable String jobId,
+                                                                @PathVariable String jobGroupName) {
+        return schedulerCommandService.resumeJob(jobId, jobGroupName)
+                .thenApply(isJobResumed -> new ResponseEntity<>(isJobResumed, HttpStatus.OK));
     }
 
     @PostMapping("pauseTrigger/{triggerId}/{triggerGroupName}")
-    public ResponseEntity<Boolean> pauseTrigger(@PathVariable String triggerId, @PathVariable String triggerGroupName) {
-        boolean isTriggerPaused = jobService.pauseTrigger(triggerId, triggerGroupName);
-        return new ResponseEntity<>(isTriggerPaused, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Boolean>> pauseTrigger(@PathVariable String triggerId,
+                                                                   @PathVariable String triggerGroupName) {
+        return schedulerCommandService.pauseTrigger(triggerId, triggerGroupName)
+                .thenApply(isTriggerPaused -> new ResponseEntity<>(isTriggerPaused, HttpStatus.OK));
     }
 
     @PostMapping("resumeTrigger/{triggerId}/{triggerGroupName}")
-    public ResponseEntity<Boolean> resumeTrigger(@PathVariable String triggerId, @PathVariable String triggerGroupName) {
-        boolean isTriggerResumed = jobService.resumeTrigger(triggerId, triggerGroupName);
-        return new ResponseEntity<>(isTriggerResumed, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Boolean>> resumeTrigger(@PathVariable String triggerId,
+                                                                    @PathVariable String triggerGroupName) {
+        return schedulerCommandService.resumeTrigger(triggerId, triggerGroupName)
+                .thenApply(isTriggerResumed -> new ResponseEntity<>(isTriggerResumed, HttpStatus.OK));
+    }
+
+    @PostMapping("pauseGroup/{jobGroupName}")
+    public ResponseEntity<String> pauseJobGroup(@PathVariable String jobGroupName) {
+        String operationId = groupOperationService.startOperation(GroupOperationType.PAUSE_JOB_GROUP, jobGroupName);
+        return new ResponseEntity<>(operationId, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("resumeGroup/{jobGroupName}")
+    public ResponseEntity<String> resumeJobGroup(@PathVariable String jobGroupName) {
+        String operationId = groupOperationService.startOperation(GroupOperationType.RESUME_JOB_GROUP, jobGroupName);
+        return new ResponseEntity<>(operationId, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("pauseTriggerGroup/{triggerGroupName}")
+    public ResponseEntity<String> pauseTriggerGroup(@PathVariable String triggerGroupName) {
+        String operationId =
+                groupOperationService.startOperation(GroupOperationType.PAUSE_TRIGGER_GROUP, triggerGroupName);
+        return new ResponseEntity<>(operationId, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("resumeTriggerGroup/{triggerGroupName}")
+    public ResponseEntity<String> resumeTriggerGroup(@PathVariable String triggerGroupName) {
+        String operationId =
+                groupOperationService.startOperation(GroupOperationType.RESUME_TRIGGER_GROUP, triggerGroupName);
+        return new ResponseEntity<>(operationId, HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("stopGroup/{triggerGroupName}")
+    public ResponseEntity<String> stopTriggerGroup(@PathVariable String triggerGroupName) {
+        String operationId =
+                groupOperationService.startOperation(GroupOperationType.UNSCHEDULE_TRIGGER_GROUP, triggerGroupName);
+        return new ResponseEntity<>(operationId, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("operation/{operationId}")
+    public ResponseEntity<GroupOperationDto> getGroupOperation(@PathVariable String operationId) {
+        GroupOperationDto groupOperation = groupOperationService.getOperation(operationId);
+        return new ResponseEntity<>(groupOperation, HttpStatus.OK);
     }
 
     @PutMapping("update/{triggerId}/{triggerGroupName}")
-    public ResponseEntity<Boolean> updateJob(@PathVariable String triggerId,
-                                             @PathVariable String triggerGroupName,
-                                             @RequestBody TriggerDto triggerDto) {
-        boolean isJobUpdated = jobService.updateScheduledJob(triggerId, triggerGroupName, triggerDto);
-        return new ResponseEntity<>(isJobUpdated, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Boolean>> updateJob(@PathVariable String triggerId,
+                                                                @PathVariable String triggerGroupName,
+                                                                @RequestBody TriggerDto triggerDto) {
+        return schedulerCommandService.updateScheduledJob(triggerId, triggerGroupName, triggerDto)
+                .thenApply(isJobUpdated -> new ResponseEntity<>(isJobUpdated, HttpStatus.OK));
     }
 }
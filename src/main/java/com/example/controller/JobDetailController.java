@@ -2,10 +2,12 @@ package com.example.controller;
 
 import com.example.domain.JobDetailDto;
 import com.example.service.JobDetailService;
+import com.example.service.SchedulerStateService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,10 +17,15 @@ import java.util.List;
 public class JobDetailController {
 
     private final JobDetailService jobDetailService;
+    private final SchedulerStateService schedulerStateService;
 
     @GetMapping(value = {"", "{jobGroupName}", "{jobId}/{jobGroupName}"})
     public ResponseEntity<List<JobDetailDto>> getJobDetailList(@PathVariable(required = false) String jobId,
-                                                               @PathVariable(required = false) String jobGroupName) {
+                                                               @PathVariable(required = false) String jobGroupName,
+                                                               WebRequest webRequest) {
+        if (webRequest.checkNotModified(schedulerStateService.getJobDetailsETag())) {
+            return null;
+        }
         List<JobDetailDto> jobDetailList = jobDetailService.getJobDetailList(jobId, jobGroupName);
         return new ResponseEntity<>(jobDetailList, HttpStatus.OK);
     }
@@ -1,25 +1,108 @@
 package com.example.controller;
 
-import com.example.domain.JobLogDto;
+import com.example.domain.JobLogExportFormat;
+import com.example.domain.JobLogPage;
 import com.example.domain.JobLogParameters;
+import com.example.domain.JobLogStatsDto;
+import com.example.domain.JobLogStatsParameters;
+import com.example.service.JobLogExportService;
 import com.example.service.JobLogService;
+import com.example.service.JobLogStatsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("log")
 public class JobLogController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+
     private final JobLogService jobLogService;
+    private final JobLogStatsService jobLogStatsService;
+    private final JobLogExportService jobLogExportService;
 
     @PostMapping("find")
-    public ResponseEntity<List<JobLogDto>> getLogsByParameters( @RequestBody JobLogParameters parameters) {
-        List<JobLogDto> jobLogDtoList = jobLogService.getLogsByParameters(parameters);
-        return new ResponseEntity<>(jobLogDtoList, HttpStatus.OK);
+    public ResponseEntity<JobLogPage> getLogsByParameters( @RequestBody JobLogParameters parameters) {
+        JobLogPage jobLogPage = jobLogService.getLogsByParameters(parameters);
+        return new ResponseEntity<>(jobLogPage, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "find/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLogsByParameters(@RequestBody JobLogParameters parameters) {
+        jobLogService.validateJobLogParameters(parameters);
+        StreamingResponseBody responseBody = outputStream -> jobLogService.streamLogsByParameters(parameters, outputStream);
+        return new ResponseEntity<>(responseBody, HttpStatus.OK);
+    }
+
+    @PostMapping("stats")
+    public ResponseEntity<List<JobLogStatsDto>> getStatsByParameters(@RequestBody JobLogStatsParameters parameters) {
+        List<JobLogStatsDto> jobLogStatsDtoList = jobLogStatsService.getStatsByParameters(parameters);
+        return new ResponseEntity<>(jobLogStatsDtoList, HttpStatus.OK);
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportLogsByParameters(
+            JobLogParameters parameters,
+            @RequestParam(defaultValue = "CSV") String format,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) throws IOException {
+        jobLogService.validateJobLogParameters(parameters);
+        JobLogExportFormat exportFormat = jobLogExportService.parseFormat(format);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(APPLICATION_GZIP);
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+                .filename("job-logs." + exportFormat.name().toLowerCase() + ".gz")
+                .build());
+        if (!jobLogExportService.isResumable(parameters)) {
+            StreamingResponseBody responseBody = outputStream ->
+                    jobLogExportService.export(parameters, exportFormat, outputStream);
+            return new ResponseEntity<>(responseBody, headers, HttpStatus.OK);
+        }
+
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        Path exportPath = nonNull(range) ? jobLogExportService.findExportFile(parameters, exportFormat) : null;
+        String eTag = nonNull(exportPath) ? "\"" + jobLogExportService.getGenerationId(exportPath) + "\"" : null;
+        //stored generation is resumed only when client has the same generation, otherwise full export is streamed
+        //and stored under a new generation id
+        boolean isRangeRequested = nonNull(exportPath) && (isNull(ifRange) || ifRange.equals(eTag));
+        if (!isRangeRequested) {
+            String generationId = jobLogExportService.createGenerationId();
+            headers.setETag("\"" + generationId + "\"");
+            StreamingResponseBody responseBody = outputStream ->
+                    jobLogExportService.exportAndStore(parameters, exportFormat, generationId, outputStream);
+            return new ResponseEntity<>(responseBody, headers, HttpStatus.OK);
+        }
+
+        headers.setETag(eTag);
+        long length = Files.size(exportPath);
+        List<HttpRange> httpRanges = HttpRange.parseRanges(range);
+        if (httpRanges.size() != 1 || httpRanges.get(0).getRangeStart(length) >= length) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        long start = httpRanges.get(0).getRangeStart(length);
+        long end = httpRanges.get(0).getRangeEnd(length);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        headers.setContentLength(end - start + 1);
+        StreamingResponseBody responseBody = outputStream ->
+                jobLogExportService.copyRange(exportPath, start, end, outputStream);
+        return new ResponseEntity<>(responseBody, headers, HttpStatus.PARTIAL_CONTENT);
     }
 }
@@ -0,0 +1,12 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class FireCountDto {
+
+    private final String bucket;
+    private final Long count;
+}
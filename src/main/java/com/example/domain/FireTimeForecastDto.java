@@ -0,0 +1,22 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class FireTimeForecastDto {
+
+    private final String startDate;
+    private final String endDate;
+    private final FireTimeForecastResolution resolution;
+    private final Long triggerCount;
+    private final Long totalFireCount;
+    private final String peakBucket;
+    private final Long peakFireCount;
+    private final Double peakToAverageRatio;
+    //buckets without fires are omitted
+    private final List<FireCountDto> fireCounts;
+}
@@ -0,0 +1,17 @@
+package com.example.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FireTimeForecastParameters {
+
+    private String startDate;
+    private Integer horizonMinutes;
+    private String resolution;
+    private String triggerGroupName;
+    private Integer limit;
+}
@@ -0,0 +1,21 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class GroupOperationDto {
+
+    private final String operationId;
+    private final GroupOperationType operationType;
+    private final String groupName;
+    private final GroupOperationStatus status;
+    private final Long totalCount;
+    private final Long processedCount;
+    private final Long failedCount;
+    private final Long itemsPerSecond;
+    private final String startDate;
+    private final String endDate;
+    private final String errorMessage;
+}
@@ -0,0 +1,7 @@
+package com.example.domain;
+
+public enum GroupOperationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
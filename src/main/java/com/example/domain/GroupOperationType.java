@@ -0,0 +1,9 @@
+package com.example.domain;
+
+public enum GroupOperationType {
+    PAUSE_JOB_GROUP,
+    RESUME_JOB_GROUP,
+    PAUSE_TRIGGER_GROUP,
+    RESUME_TRIGGER_GROUP,
+    UNSCHEDULE_TRIGGER_GROUP
+}
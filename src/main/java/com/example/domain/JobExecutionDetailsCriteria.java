@@ -0,0 +1,18 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.quartz.Trigger;
+
+@Getter
+@Builder
+public class JobExecutionDetailsCriteria {
+
+    private final String triggerGroupName;
+    private final String jobGroupName;
+    private final Trigger.TriggerState triggerState;
+    private final String jobClassName;
+    private final Long nextFireTimeFrom;
+    private final Long nextFireTimeTo;
+    private final JobExecutionDetailsCursor cursor;
+}
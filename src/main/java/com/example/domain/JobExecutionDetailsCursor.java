@@ -0,0 +1,13 @@
+package com.example.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class JobExecutionDetailsCursor {
+
+    private final Long nextFireTime;
+    private final String triggerName;
+    private final String triggerGroupName;
+}
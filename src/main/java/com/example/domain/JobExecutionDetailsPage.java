@@ -0,0 +1,14 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class JobExecutionDetailsPage {
+
+    private final List<JobExecutionDetails> jobExecutionDetails;
+    private final String nextCursor;
+}
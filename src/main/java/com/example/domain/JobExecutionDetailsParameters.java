@@ -0,0 +1,20 @@
+package com.example.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobExecutionDetailsParameters {
+
+    private String triggerGroupName;
+    private String jobGroupName;
+    private String triggerState;
+    private String jobClassName;
+    private String nextFireTimeFrom;
+    private String nextFireTimeTo;
+    private String cursor;
+    private Integer limit;
+}
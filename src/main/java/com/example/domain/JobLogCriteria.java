@@ -0,0 +1,28 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class JobLogCriteria {
+
+    private final Integer id;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final JobLogLevel logLevel;
+    private final String jobKeyPattern;
+    private final String jobGroupPattern;
+    private final String jobNamePattern;
+    private final String triggerKeyPattern;
+    private final String triggerGroupPattern;
+    private final String triggerNamePattern;
+    private final String errorMessagePattern;
+    private final String messageText;
+    private final String fullTextMessage;
+    private final JobLogSortDirection sortDirection;
+    private final LocalDateTime cursorDate;
+    private final Integer cursorId;
+}
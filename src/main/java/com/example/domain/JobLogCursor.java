@@ -0,0 +1,14 @@
+package com.example.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class JobLogCursor {
+
+    private final LocalDateTime date;
+    private final Integer id;
+}
@@ -0,0 +1,5 @@
+package com.example.domain;
+
+public enum JobLogMessageMatchMode {
+    CONTAINS, FULL_TEXT
+}
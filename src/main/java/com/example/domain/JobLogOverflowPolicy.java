@@ -0,0 +1,5 @@
+package com.example.domain;
+
+public enum JobLogOverflowPolicy {
+    BLOCK, DROP, SPOOL
+}
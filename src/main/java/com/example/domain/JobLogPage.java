@@ -0,0 +1,14 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class JobLogPage {
+
+    private final List<JobLogDto> jobLogs;
+    private final String nextCursor;
+}
@@ -14,6 +14,15 @@ public class JobLogParameters {
     private String endDate;
     private String jobLogLevel;
     private String jobKey;
+    private String jobGroup;
+    private String jobName;
     private String triggerKey;
+    private String triggerGroup;
+    private String triggerName;
+    private String keyMatchMode;
     private String errorMessage;
+    private String messageMatchMode;
+    private String sortDirection;
+    private String cursor;
+    private Integer limit;
 }
@@ -0,0 +1,5 @@
+package com.example.domain;
+
+public enum JobLogSortDirection {
+    ASC, DESC
+}
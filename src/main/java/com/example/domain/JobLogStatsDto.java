@@ -0,0 +1,15 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class JobLogStatsDto {
+
+    private final String bucket;
+    private final String jobLogLevel;
+    private final String jobKey;
+    private final String triggerKey;
+    private final Long count;
+}
@@ -0,0 +1,18 @@
+package com.example.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class JobLogStatsKey {
+
+    private final LocalDateTime bucket;
+    private final String jobKey;
+    private final String triggerKey;
+    private final JobLogLevel logLevel;
+}
@@ -0,0 +1,15 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ScheduledFireDto {
+
+    private final String triggerId;
+    private final String triggerGroupName;
+    private final String jobId;
+    private final String jobGroupName;
+    private final String fireTime;
+}
@@ -0,0 +1,25 @@
+package com.example.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class SchedulerEventDto {
+
+    private final SchedulerEventType eventType;
+    private final String date;
+    private final String triggerKey;
+    private final String jobKey;
+    //group of group events, null group means all groups
+    private final String groupName;
+    private final String nextFireTime;
+    private final String completedExecutionInstruction;
+
+    //undelivered events with the same key are coalesced, only the latest one is sent
+    @JsonIgnore
+    public String getCoalescingKey() {
+        return eventType + ":" + triggerKey + ":" + jobKey + ":" + groupName;
+    }
+}
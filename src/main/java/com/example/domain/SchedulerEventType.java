@@ -0,0 +1,21 @@
+package com.example.domain;
+
+public enum SchedulerEventType {
+    TRIGGER_SCHEDULED,
+    TRIGGER_UNSCHEDULED,
+    TRIGGER_PAUSED,
+    TRIGGER_RESUMED,
+    TRIGGER_FIRED,
+    TRIGGER_COMPLETED,
+    TRIGGER_MISFIRED,
+    TRIGGER_FINALIZED,
+    TRIGGER_GROUP_PAUSED,
+    TRIGGER_GROUP_RESUMED,
+    JOB_ADDED,
+    JOB_UPDATED,
+    JOB_DELETED,
+    JOB_PAUSED,
+    JOB_RESUMED,
+    JOB_GROUP_PAUSED,
+    JOB_GROUP_RESUMED
+}
@@ -0,0 +1,18 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class SchedulerStateCacheStatsDto {
+
+    private final Boolean loaded;
+    private final Integer jobCount;
+    private final Integer triggerCount;
+    private final Long hitCount;
+    private final Long missCount;
+    private final Double hitRatio;
+    private final Long reconciliationCorrectionCount;
+    private final String lastReconciliationDate;
+}
@@ -21,4 +21,6 @@ public class TriggerDto {
     private String cronExpression;
     private String jobId;
     private String jobGroupName;
+    //opt-in, fire times are shifted by a per trigger offset when planned fire density is over target
+    private Boolean smoothFireTimes;
 }
@@ -0,0 +1,14 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TriggerScheduleResultDto {
+
+    private final String triggerId;
+    private final String triggerGroupName;
+    private final Boolean isScheduled;
+    private final String errorMessage;
+}
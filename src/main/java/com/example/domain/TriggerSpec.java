@@ -0,0 +1,28 @@
+package com.example.domain;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.quartz.CronExpression;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+
+import java.time.LocalDateTime;
+
+//validated and parsed TriggerDto, trigger is built from it without parsing input again
+@Getter
+@Builder(toBuilder = true)
+public class TriggerSpec {
+
+    private final TriggerKey triggerKey;
+    private final JobKey jobKey;
+    private final TriggerType triggerType;
+    private final boolean repeatForever;
+    private final Integer repeatCount;
+    private final Long repeatIntervalMs;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final String description;
+    private final boolean smoothFireTimes;
+    //shared with other specs through the cron expression cache, must not be modified
+    private final CronExpression cronExpression;
+}
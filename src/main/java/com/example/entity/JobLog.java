@@ -1,14 +1,20 @@
 package com.example.entity;
 
 import com.example.domain.JobLogLevel;
+import com.example.util.JobLogUtils;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Data
 @Builder
@@ -30,8 +36,60 @@ public class JobLog {
     private JobLogLevel logLevel;
     @Column(name = "job_key")
     private String jobKey;
+    @Column(name = "job_group")
+    private String jobGroup;
+    @Column(name = "job_name")
+    private String jobName;
     @Column(name = "trigger_key")
     private String triggerKey;
+    @Column(name = "trigger_group")
+    private String triggerGroup;
+    @Column(name = "trigger_name")
+    private String triggerName;
     @Column(name = "error_message")
     private String errorMessage;
+    @Column(name = "template_id")
+    private Integer templateId;
+    @Column(name = "message_parameters")
+    private String messageParameters;
+    @Transient
+    private String messageTemplate;
+    @Transient
+    private List<String> messageArguments;
+
+    public static class JobLogBuilder {
+
+        public JobLogBuilder jobKey(String jobKey) {
+            this.jobKey = jobKey;
+            return this;
+        }
+
+        public JobLogBuilder triggerKey(String triggerKey) {
+            this.triggerKey = triggerKey;
+            return this;
+        }
+
+        //fills indexed group and name columns together with the legacy "group.name" key column
+        public JobLogBuilder jobKey(JobKey jobKey) {
+            this.jobKey = jobKey.toString();
+            this.jobGroup = jobKey.getGroup();
+            this.jobName = jobKey.getName();
+            return this;
+        }
+
+        public JobLogBuilder triggerKey(TriggerKey triggerKey) {
+            this.triggerKey = triggerKey.toString();
+            this.triggerGroup = triggerKey.getGroup();
+            this.triggerName = triggerKey.getName();
+            return this;
+        }
+
+        //template with "{}" placeholders is stored once in job_log_templates, rows keep only its id and arguments
+        public JobLogBuilder message(String messageTemplate, Object... messageArguments) {
+            this.messageTemplate = messageTemplate;
+            this.messageArguments = Stream.of(messageArguments).map(String::valueOf).collect(Collectors.toList());
+            this.errorMessage = JobLogUtils.formatMessage(this.messageTemplate, this.messageArguments);
+            return this;
+        }
+    }
 }
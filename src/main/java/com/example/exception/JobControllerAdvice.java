@@ -17,7 +17,8 @@ public class JobControllerAdvice extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
-    @ExceptionHandler({JobDetailNotFoundException.class, TriggerNotFoundException.class})
+    @ExceptionHandler({JobDetailNotFoundException.class, TriggerNotFoundException.class,
+            OperationNotFoundException.class})
     public ResponseEntity<String> handleNotFoundException(RuntimeException e) {
         log.info("Error while requesting. Requested object does not exist. Message: {}", e.getMessage());
         return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -0,0 +1,8 @@
+package com.example.exception;
+
+public class OperationNotFoundException extends RuntimeException {
+
+    public OperationNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.job;
+
+import com.example.domain.JobLogLevel;
+import com.example.service.JobLogPartitionService;
+import com.example.service.JobLogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.springframework.stereotype.Component;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class JobLogPartitionJob implements Job {
+
+    private final JobLogPartitionService jobLogPartitionService;
+    private final JobLogService jobLogService;
+
+    @Override
+    public void execute(JobExecutionContext context) {
+        try {
+            int createdCount = jobLogPartitionService.createFuturePartitions();
+            int droppedCount = jobLogPartitionService.dropExpiredPartitions();
+            jobLogService.log(context, JobLogLevel.INFO,
+                    "JobLogPartitionJob successfully executed. Created partitions: {}, dropped partitions: {}",
+                    createdCount, droppedCount);
+        } catch (Exception e) {
+            log.error("Error while executing JobLogPartitionJob. JobExecutionContext: {} Message: {}", context, e.getMessage());
+            jobLogService.log(context, JobLogLevel.ERROR, "Error while executing JobLogPartitionJob. Message: {}", e.getMessage());
+        }
+    }
+}
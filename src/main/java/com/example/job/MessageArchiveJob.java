@@ -0,0 +1,48 @@
+package com.example.job;
+
+import com.example.domain.JobLogLevel;
+import com.example.service.JobLogService;
+import com.example.service.MessageArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class MessageArchiveJob implements Job {
+
+    private final MessageArchiveService messageArchiveService;
+    private final JobLogService jobLogService;
+
+    @Override
+    public void execute(JobExecutionContext context) {
+        long startTime = System.nanoTime();
+        try {
+            long archivedCount = messageArchiveService.archiveExpiredMessages(progressCount ->
+                    jobLogService.log(context, JobLogLevel.INFO,
+                            "MessageArchiveJob in progress. Archived messages: {}, messages per second: {}",
+                            progressCount, getThroughput(progressCount, startTime)));
+            jobLogService.log(context, JobLogLevel.INFO,
+                    "MessageArchiveJob successfully executed. Archived messages: {}, messages per second: {}",
+                    archivedCount, getThroughput(archivedCount, startTime));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            jobLogService.log(context, JobLogLevel.WARN, "MessageArchiveJob was interrupted");
+        } catch (Exception e) {
+            log.error("Error while executing MessageArchiveJob. JobExecutionContext: {} Message: {}", context, e.getMessage());
+            jobLogService.log(context, JobLogLevel.ERROR, "Error while executing MessageArchiveJob. Message: {}", e.getMessage());
+        }
+    }
+
+    private static long getThroughput(long archivedCount, long startTime) {
+        long elapsedMs = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), 1);
+        return archivedCount * 1000 / elapsedMs;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.job;
 import com.example.domain.JobLogLevel;
 import com.example.entity.Message;
 import com.example.service.JobLogService;
+import com.example.service.JobTransactionService;
 import com.example.service.MessageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -19,18 +20,29 @@ import java.time.LocalDateTime;
 @DisallowConcurrentExecution
 public class MessageJob implements Job {
 
+    //job data flag, buffered messages are saved by MessageService in multi-row batches
+    public static final String BUFFER_MESSAGES_KEY = "bufferMessages";
+
     private final MessageService messageService;
     private final JobLogService jobLogService;
+    private final JobTransactionService jobTransactionService;
 
     @Override
     public void execute(JobExecutionContext context) {
         try {
             Message message = Message.builder().message("This message was created on: " + LocalDateTime.now()).build();
-            messageService.saveMessage(message);
-            jobLogService.log(context, JobLogLevel.INFO, "MessageJob successfully executed");
+            if (Boolean.parseBoolean(String.valueOf(context.getMergedJobDataMap().get(BUFFER_MESSAGES_KEY)))) {
+                //success is logged by MessageService once the buffered message is committed
+                messageService.bufferMessage(message, context.getJobDetail().getKey(), context.getTrigger().getKey());
+                return;
+            }
+            jobTransactionService.executeInTransaction(() -> {
+                messageService.saveMessage(message);
+                jobLogService.logInTransaction(context, JobLogLevel.INFO, "MessageJob successfully executed");
+            });
         } catch (Exception e) {
             log.error("Error while executing MessageJob. JobExecutionContext: {} Message: {}", context, e.getMessage());
-            jobLogService.log(context, JobLogLevel.ERROR, "Error while executing MessageJob. Message: " + e.getMessage());
+            jobLogService.log(context, JobLogLevel.ERROR, "Error while executing MessageJob. Message: {}", e.getMessage());
         }
     }
 }
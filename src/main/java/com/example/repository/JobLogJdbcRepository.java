@@ -0,0 +1,85 @@
+package com.example.repository;
+
+import com.example.domain.JobLogCriteria;
+import com.example.domain.JobLogDto;
+import com.example.util.JobLogUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@Repository
+public class JobLogJdbcRepository {
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final JobLogTemplateRepository jobLogTemplateRepository;
+
+    public JobLogJdbcRepository(DataSource dataSource, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                JobLogTemplateRepository jobLogTemplateRepository) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.jobLogTemplateRepository = jobLogTemplateRepository;
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        //Integer.MIN_VALUE makes MySQL driver read rows one by one through a forward-only cursor
+        jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public List<JobLogDto> findAllByCriteria(JobLogCriteria criteria, int limit) {
+        JobLogQueryBuilder queryBuilder = createQueryBuilder(criteria);
+        return namedParameterJdbcTemplate.query(queryBuilder.toSql(limit), queryBuilder.getParameters(),
+                (resultSet, rowNumber) -> convertRowToDto(resultSet));
+    }
+
+    public void streamAllByCriteria(JobLogCriteria criteria, Consumer<JobLogDto> consumer) {
+        JobLogQueryBuilder queryBuilder = createQueryBuilder(criteria);
+        streamingJdbcTemplate.query(queryBuilder.toSql(null), queryBuilder.getParameters(),
+                (RowCallbackHandler) resultSet -> consumer.accept(convertRowToDto(resultSet)));
+    }
+
+    //rows are passed to the handler as is, so large exports do not create an object per row
+    public void exportAllByCriteria(JobLogCriteria criteria, RowCallbackHandler rowCallbackHandler) {
+        JobLogQueryBuilder queryBuilder = createQueryBuilder(criteria);
+        streamingJdbcTemplate.query(queryBuilder.toSql(null), queryBuilder.getParameters(), rowCallbackHandler);
+    }
+
+    //templated rows keep only template id and arguments, message is restored from the template dictionary
+    public String getMessage(ResultSet resultSet) throws SQLException {
+        Integer templateId = resultSet.getObject("template_id", Integer.class);
+        if (isNull(templateId)) {
+            return resultSet.getString("error_message");
+        }
+        String template = jobLogTemplateRepository.getTemplate(templateId);
+        List<String> messageArguments = JobLogUtils.decodeMessageParameters(resultSet.getString("message_parameters"));
+        return isNull(template)
+                ? String.join(" ", messageArguments) : JobLogUtils.formatMessage(template, messageArguments);
+    }
+
+    private JobLogQueryBuilder createQueryBuilder(JobLogCriteria criteria) {
+        List<Integer> messageTemplateIds = nonNull(criteria.getMessageText())
+                ? jobLogTemplateRepository.findTemplateIdsContaining(criteria.getMessageText())
+                : Collections.emptyList();
+        return JobLogQueryBuilder.fromCriteria(criteria, messageTemplateIds);
+    }
+
+    private JobLogDto convertRowToDto(ResultSet resultSet) throws SQLException {
+        return JobLogDto.builder()
+                .id(resultSet.getInt("id"))
+                .date(resultSet.getTimestamp("date", JobLogUtils.utcCalendar()).toLocalDateTime().toString())
+                .jobLogLevel(resultSet.getString("log_level"))
+                .jobKey(resultSet.getString("job_key"))
+                .triggerKey(resultSet.getString("trigger_key"))
+                .errorMessage(getMessage(resultSet))
+                .build();
+    }
+}
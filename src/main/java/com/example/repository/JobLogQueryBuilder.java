@@ -0,0 +1,90 @@
+package com.example.repository;
+
+import com.example.domain.JobLogCriteria;
+import com.example.domain.JobLogSortDirection;
+import com.example.util.JobLogUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.nonNull;
+
+//builds job_logs query only from specified criteria, so MySQL can choose index for the actual filter set
+final class JobLogQueryBuilder {
+
+    private static final String SELECT =
+            "SELECT id, date, log_level, job_key, trigger_key, error_message, template_id, message_parameters " +
+            "FROM atimis_logistic.job_logs";
+    private static final String ORDER_BY_ASC = " ORDER BY date, id";
+    private static final String ORDER_BY_DESC = " ORDER BY date DESC, id DESC";
+
+    private final List<String> predicates = new ArrayList<>();
+    private final MapSqlParameterSource parameters = new MapSqlParameterSource();
+    private boolean isDescending;
+
+    static JobLogQueryBuilder fromCriteria(JobLogCriteria criteria, List<Integer> messageTemplateIds) {
+        JobLogQueryBuilder queryBuilder = new JobLogQueryBuilder()
+                .where("date >= :startDate", "startDate", JobLogUtils.toUtcTimestamp(criteria.getStartDate()))
+                .where("date <= :endDate", "endDate", JobLogUtils.toUtcTimestamp(criteria.getEndDate()))
+                .where("id = :id", "id", criteria.getId())
+                .where("log_level = :logLevel", "logLevel",
+                        nonNull(criteria.getLogLevel()) ? criteria.getLogLevel().name() : null)
+                .where("job_key LIKE :jobKeyPattern", "jobKeyPattern", criteria.getJobKeyPattern())
+                .where("job_group LIKE :jobGroupPattern", "jobGroupPattern", criteria.getJobGroupPattern())
+                .where("job_name LIKE :jobNamePattern", "jobNamePattern", criteria.getJobNamePattern())
+                .where("trigger_key LIKE :triggerKeyPattern", "triggerKeyPattern", criteria.getTriggerKeyPattern())
+                .where("trigger_group LIKE :triggerGroupPattern", "triggerGroupPattern",
+                        criteria.getTriggerGroupPattern())
+                .where("trigger_name LIKE :triggerNamePattern", "triggerNamePattern", criteria.getTriggerNamePattern())
+                .where("MATCH (error_message) AGAINST (:fullTextMessage IN BOOLEAN MODE) " +
+                                "OR MATCH (message_parameters) AGAINST (:fullTextMessage IN BOOLEAN MODE) " +
+                                "OR template_id IN (SELECT id FROM atimis_logistic.job_log_templates " +
+                                "WHERE MATCH (template) AGAINST (:fullTextMessage IN BOOLEAN MODE))",
+                        "fullTextMessage", criteria.getFullTextMessage());
+        if (nonNull(criteria.getErrorMessagePattern())) {
+            //templated message matches by its arguments or by the template text, matches spanning both are not found
+            queryBuilder.predicates.add(messageTemplateIds.isEmpty()
+                    ? "(error_message LIKE :errorMessagePattern OR message_parameters LIKE :errorMessagePattern)"
+                    : "(error_message LIKE :errorMessagePattern OR message_parameters LIKE :errorMessagePattern " +
+                    "OR template_id IN (:messageTemplateIds))");
+            queryBuilder.parameters
+                    .addValue("errorMessagePattern", criteria.getErrorMessagePattern())
+                    .addValue("messageTemplateIds", messageTemplateIds);
+        }
+        queryBuilder.isDescending = criteria.getSortDirection() == JobLogSortDirection.DESC;
+        if (nonNull(criteria.getCursorDate())) {
+            //redundant date bound keeps keyset condition usable as index range, descending pages mirror it
+            queryBuilder.predicates.add(queryBuilder.isDescending
+                    ? "date <= :cursorDate AND (date < :cursorDate OR id < :cursorId)"
+                    : "date >= :cursorDate AND (date > :cursorDate OR id > :cursorId)");
+            queryBuilder.parameters
+                    .addValue("cursorDate", JobLogUtils.toUtcTimestamp(criteria.getCursorDate()))
+                    .addValue("cursorId", criteria.getCursorId());
+        }
+        return queryBuilder;
+    }
+
+    String toSql(Integer limit) {
+        StringBuilder sql = new StringBuilder(SELECT)
+                .append(" WHERE ")
+                .append(String.join(" AND ", predicates))
+                .append(isDescending ? ORDER_BY_DESC : ORDER_BY_ASC);
+        if (nonNull(limit)) {
+            sql.append(" LIMIT ").append(limit.intValue());
+        }
+        return sql.toString();
+    }
+
+    MapSqlParameterSource getParameters() {
+        return parameters;
+    }
+
+    private JobLogQueryBuilder where(String predicate, String parameterName, Object value) {
+        if (nonNull(value)) {
+            predicates.add(predicate);
+            parameters.addValue(parameterName, value);
+        }
+        return this;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.repository;
+
+import com.example.domain.JobLogLevel;
+import com.example.domain.JobLogStatsKey;
+import com.example.domain.JobLogStatsDto;
+import com.example.domain.JobLogStatsResolution;
+import com.example.util.JobLogUtils;
+import com.google.common.collect.ImmutableMap;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.nonNull;
+
+@Repository
+@RequiredArgsConstructor
+public class JobLogStatsRepository {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO atimis_logistic.job_log_stats (bucket, job_key, trigger_key, log_level, log_count) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?)";
+    private static final String INSERT_SUFFIX = " ON DUPLICATE KEY UPDATE log_count = log_count + VALUES(log_count)";
+    private static final int INSERT_COLUMN_COUNT = 5;
+
+    private static final Map<JobLogStatsResolution, String> BUCKET_EXPRESSIONS =
+            ImmutableMap.<JobLogStatsResolution, String>builder()
+                    .put(JobLogStatsResolution.MINUTE, "bucket")
+                    .put(JobLogStatsResolution.HOUR, "DATE_FORMAT(bucket, '%Y-%m-%d %H:00:00')")
+                    .put(JobLogStatsResolution.DAY, "DATE_FORMAT(bucket, '%Y-%m-%d 00:00:00')")
+                    .build();
+
+    private static final String FIND_ALL_BY_PARAMETERS =
+            "SELECT %s AS stats_bucket, job_key, trigger_key, log_level, SUM(log_count) AS log_count " +
+            "FROM atimis_logistic.job_log_stats WHERE bucket >= :startDate AND bucket <= :endDate";
+    private static final String GROUP_BY =
+            " GROUP BY stats_bucket, job_key, trigger_key, log_level " +
+            "ORDER BY stats_bucket, job_key, trigger_key, log_level";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public void addCounts(List<Map.Entry<JobLogStatsKey, Long>> counts) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < counts.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(INSERT_ROW);
+        }
+        sql.append(INSERT_SUFFIX);
+        namedParameterJdbcTemplate.getJdbcTemplate().update(sql.toString(), (PreparedStatement preparedStatement) -> {
+            for (int i = 0; i < counts.size(); i++) {
+                int offset = i * INSERT_COLUMN_COUNT;
+                JobLogStatsKey statsKey = counts.get(i).getKey();
+                preparedStatement.setTimestamp(offset + 1, Timestamp.valueOf(statsKey.getBucket()), JobLogUtils.utcCalendar());
+                preparedStatement.setString(offset + 2, StringUtils.defaultString(statsKey.getJobKey()));
+                preparedStatement.setString(offset + 3, StringUtils.defaultString(statsKey.getTriggerKey()));
+                preparedStatement.setString(offset + 4, statsKey.getLogLevel().name());
+                preparedStatement.setLong(offset + 5, counts.get(i).getValue());
+            }
+        });
+    }
+
+    public List<JobLogStatsDto> findAllByParameters(LocalDateTime startDate,
+                                                    LocalDateTime endDate,
+                                                    JobLogLevel logLevel,
+                                                    String jobKey,
+                                                    String triggerKey,
+                                                    JobLogStatsResolution resolution) {
+        StringBuilder sql = new StringBuilder(String.format(FIND_ALL_BY_PARAMETERS, BUCKET_EXPRESSIONS.get(resolution)));
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("startDate", JobLogUtils.toUtcTimestamp(startDate))
+                .addValue("endDate", JobLogUtils.toUtcTimestamp(endDate));
+        //only specified filters become predicates, so MySQL can choose index for the actual filter set
+        if (nonNull(logLevel)) {
+            sql.append(" AND log_level = :logLevel");
+            parameters.addValue("logLevel", logLevel.name());
+        }
+        if (nonNull(jobKey)) {
+            sql.append(" AND job_key = :jobKey");
+            parameters.addValue("jobKey", jobKey);
+        }
+        if (nonNull(triggerKey)) {
+            sql.append(" AND trigger_key = :triggerKey");
+            parameters.addValue("triggerKey", triggerKey);
+        }
+        sql.append(GROUP_BY);
+        return namedParameterJdbcTemplate.query(sql.toString(), parameters,
+                (resultSet, rowNumber) -> JobLogStatsDto.builder()
+                        .bucket(resultSet.getTimestamp("stats_bucket", JobLogUtils.utcCalendar())
+                                .toLocalDateTime().toString())
+                        .jobLogLevel(resultSet.getString("log_level"))
+                        .jobKey(StringUtils.defaultIfEmpty(resultSet.getString("job_key"), null))
+                        .triggerKey(StringUtils.defaultIfEmpty(resultSet.getString("trigger_key"), null))
+                        .count(resultSet.getLong("log_count"))
+                        .build());
+    }
+}
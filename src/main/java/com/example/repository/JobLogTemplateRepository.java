@@ -0,0 +1,90 @@
+package com.example.repository;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+//job log templates are few and never change, so the whole dictionary is kept in memory
+@Repository
+public class JobLogTemplateRepository {
+
+    public static final int MAX_TEMPLATE_LENGTH = 700;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final Map<String, Integer> templateIds = new ConcurrentHashMap<>();
+    private final Map<Integer, String> templates = new ConcurrentHashMap<>();
+
+    public JobLogTemplateRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        //cached template id must not be rolled back with the transaction of a job log entry
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.query("SELECT id, template FROM atimis_logistic.job_log_templates",
+                resultSet -> {
+                    cache(resultSet.getInt("id"), resultSet.getString("template"));
+                });
+    }
+
+    public Integer getTemplateId(String template) {
+        Integer templateId = templateIds.get(template);
+        if (nonNull(templateId)) {
+            return templateId;
+        }
+        templateId = newTransactionTemplate.execute(status -> {
+            jdbcTemplate.update("INSERT IGNORE INTO atimis_logistic.job_log_templates (template) VALUES (?)", template);
+            return jdbcTemplate.queryForObject(
+                    "SELECT id FROM atimis_logistic.job_log_templates WHERE template = ?", Integer.class, template);
+        });
+        cache(templateId, template);
+        return templateId;
+    }
+
+    //templates can be created by other application nodes, so unknown ids are loaded from database
+    public String getTemplate(Integer templateId) {
+        String template = templates.get(templateId);
+        if (nonNull(template)) {
+            return template;
+        }
+        try {
+            template = jdbcTemplate.queryForObject(
+                    "SELECT template FROM atimis_logistic.job_log_templates WHERE id = ?", String.class, templateId);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+        cache(templateId, template);
+        return template;
+    }
+
+    public List<Integer> findTemplateIdsContaining(String text) {
+        String lowerCaseText = text.toLowerCase();
+        return templateIds.entrySet().stream()
+                .filter(entry -> entry.getKey().toLowerCase().contains(lowerCaseText))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private void cache(Integer templateId, String template) {
+        if (isNull(templateId) || isNull(template)) {
+            return;
+        }
+        templateIds.put(template, templateId);
+        templates.put(templateId, template);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.repository;
+
+import com.example.entity.Message;
+import com.example.util.JobLogUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+
+@Repository
+@RequiredArgsConstructor
+public class MessageJdbcRepository {
+
+    private static final String INSERT_PREFIX = "INSERT INTO atimis_logistic.messages (message, date) VALUES ";
+    private static final String INSERT_ROW = "(?, ?)";
+    private static final int INSERT_COLUMN_COUNT = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    //one multi-row statement per call, MySQL returns consecutive identity values of the statement as generated keys
+    public void saveAll(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < messages.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(INSERT_ROW);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement preparedStatement =
+                    connection.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+            for (int i = 0; i < messages.size(); i++) {
+                Message message = messages.get(i);
+                if (isNull(message.getDateTime())) {
+                    message.setDateTime(now);
+                }
+                int offset = i * INSERT_COLUMN_COUNT;
+                preparedStatement.setString(offset + 1, message.getMessage());
+                preparedStatement.setTimestamp(offset + 2,
+                        Timestamp.valueOf(message.getDateTime()), JobLogUtils.utcCalendar());
+            }
+            return preparedStatement;
+        }, keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < messages.size() && i < keys.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            messages.get(i).setId(id.intValue());
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.repository;
+
+import com.example.domain.JobExecutionDetails;
+import com.example.domain.JobExecutionDetailsCriteria;
+import com.example.domain.JobExecutionDetailsCursor;
+import com.google.common.collect.ImmutableMap;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.ScheduleBuilder;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.impl.jdbcjobstore.Constants;
+import org.quartz.impl.triggers.CalendarIntervalTriggerImpl;
+import org.quartz.impl.triggers.CronTriggerImpl;
+import org.quartz.impl.triggers.DailyTimeIntervalTriggerImpl;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.spi.OperableTrigger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+//read-only projection of quartz tables, job data maps are loaded and deserialized only for the state cache
+@Repository
+public class SchedulerJdbcRepository {
+
+    private static final String FIND_JOB_EXECUTION_DETAILS =
+            "SELECT t.TRIGGER_NAME, t.TRIGGER_GROUP, t.TRIGGER_TYPE, t.DESCRIPTION AS TRIGGER_DESCRIPTION, " +
+            "t.MISFIRE_INSTR, t.NEXT_FIRE_TIME, t.TRIGGER_STATE, " +
+            "j.JOB_NAME, j.JOB_GROUP, j.JOB_CLASS_NAME, j.DESCRIPTION AS JOB_DESCRIPTION, " +
+            "j.IS_NONCONCURRENT, j.IS_UPDATE_DATA, j.REQUESTS_RECOVERY, j.IS_DURABLE " +
+            "FROM %1$sTRIGGERS t JOIN %1$sJOB_DETAILS j " +
+            "ON j.SCHED_NAME = t.SCHED_NAME AND j.JOB_NAME = t.JOB_NAME AND j.JOB_GROUP = t.JOB_GROUP " +
+            "WHERE t.SCHED_NAME = :schedulerName";
+    //the order of IDX_QRTZ_T_NEXT_FIRE_TIME index with primary key columns, so pages are read without sorting
+    private static final String ORDER_BY = " ORDER BY t.NEXT_FIRE_TIME, t.TRIGGER_NAME, t.TRIGGER_GROUP";
+
+    private static final String FIND_ALL_TRIGGER_STATES =
+            "SELECT TRIGGER_NAME, TRIGGER_GROUP, TRIGGER_STATE FROM %sTRIGGERS WHERE SCHED_NAME = ?";
+
+    private static final String FIND_ALL_JOB_DETAILS =
+            "SELECT JOB_NAME, JOB_GROUP, DESCRIPTION, JOB_CLASS_NAME, IS_DURABLE, REQUESTS_RECOVERY, JOB_DATA " +
+            "FROM %sJOB_DETAILS WHERE SCHED_NAME = ?";
+
+    //simple and cron properties are joined, triggers of other types have null properties
+    private static final String FIND_ALL_TRIGGERS =
+            "SELECT t.TRIGGER_NAME, t.TRIGGER_GROUP, t.JOB_NAME, t.JOB_GROUP, t.DESCRIPTION, t.NEXT_FIRE_TIME, " +
+            "t.PREV_FIRE_TIME, t.PRIORITY, t.TRIGGER_TYPE, t.START_TIME, t.END_TIME, t.CALENDAR_NAME, " +
+            "t.MISFIRE_INSTR, t.JOB_DATA, s.REPEAT_COUNT, s.REPEAT_INTERVAL, s.TIMES_TRIGGERED, " +
+            "c.CRON_EXPRESSION, c.TIME_ZONE_ID " +
+            "FROM %1$sTRIGGERS t " +
+            "LEFT JOIN %1$sSIMPLE_TRIGGERS s ON s.SCHED_NAME = t.SCHED_NAME AND s.TRIGGER_NAME = t.TRIGGER_NAME " +
+            "AND s.TRIGGER_GROUP = t.TRIGGER_GROUP " +
+            "LEFT JOIN %1$sCRON_TRIGGERS c ON c.SCHED_NAME = t.SCHED_NAME AND c.TRIGGER_NAME = t.TRIGGER_NAME " +
+            "AND c.TRIGGER_GROUP = t.TRIGGER_GROUP " +
+            "WHERE t.SCHED_NAME = ?";
+
+    private static final String FIND_EXISTING_TRIGGER_KEYS =
+            "SELECT TRIGGER_NAME, TRIGGER_GROUP FROM %sTRIGGERS " +
+            "WHERE SCHED_NAME = :schedulerName AND (TRIGGER_NAME, TRIGGER_GROUP) IN (:triggerKeys)";
+
+    private static final Map<String, String> TRIGGER_CLASS_NAMES = ImmutableMap.<String, String>builder()
+            .put(Constants.TTYPE_SIMPLE, SimpleTriggerImpl.class.getName())
+            .put(Constants.TTYPE_CRON, CronTriggerImpl.class.getName())
+            .put(Constants.TTYPE_CAL_INT, CalendarIntervalTriggerImpl.class.getName())
+            .put(Constants.TTYPE_DAILY_TIME_INT, DailyTimeIntervalTriggerImpl.class.getName())
+            .build();
+
+    //the same mapping of stored states as JobStoreSupport.getTriggerState
+    private static final Map<String, Trigger.TriggerState> TRIGGER_STATES =
+            ImmutableMap.<String, Trigger.TriggerState>builder()
+                    .put(Constants.STATE_WAITING, Trigger.TriggerState.NORMAL)
+                    .put(Constants.STATE_ACQUIRED, Trigger.TriggerState.NORMAL)
+                    .put(Constants.STATE_EXECUTING, Trigger.TriggerState.NORMAL)
+                    .put(Constants.STATE_PAUSED, Trigger.TriggerState.PAUSED)
+                    .put(Constants.STATE_PAUSED_BLOCKED, Trigger.TriggerState.PAUSED)
+                    .put(Constants.STATE_BLOCKED, Trigger.TriggerState.BLOCKED)
+                    .put(Constants.STATE_COMPLETE, Trigger.TriggerState.COMPLETE)
+                    .put(Constants.STATE_ERROR, Trigger.TriggerState.ERROR)
+                    .put(Constants.STATE_DELETED, Trigger.TriggerState.NONE)
+                    .build();
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final boolean isJobDataStoredAsProperties;
+    private final String findJobExecutionDetailsSql;
+    private final String findAllTriggerStatesSql;
+    private final String findAllJobDetailsSql;
+    private final String findAllTriggersSql;
+    private final String findExistingTriggerKeysSql;
+
+    public SchedulerJdbcRepository(NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                   @Value("${spring.quartz.properties.org.quartz.jobStore.tablePrefix:QRTZ_}")
+                                           String tablePrefix,
+                                   @Value("${spring.quartz.properties.org.quartz.jobStore.useProperties:false}")
+                                           boolean isJobDataStoredAsProperties) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.isJobDataStoredAsProperties = isJobDataStoredAsProperties;
+        this.findJobExecutionDetailsSql = String.format(FIND_JOB_EXECUTION_DETAILS, tablePrefix);
+        this.findAllTriggerStatesSql = String.format(FIND_ALL_TRIGGER_STATES, tablePrefix);
+        this.findAllJobDetailsSql = String.format(FIND_ALL_JOB_DETAILS, tablePrefix);
+        this.findAllTriggersSql = String.format(FIND_ALL_TRIGGERS, tablePrefix);
+        this.findExistingTriggerKeysSql = String.format(FIND_EXISTING_TRIGGER_KEYS, tablePrefix);
+    }
+
+    //every filter is a predicate on quartz columns, so only the requested page is read and converted
+    public List<JobExecutionDetails> findJobExecutionDetails(String schedulerName,
+                                                             JobExecutionDetailsCriteria criteria, int limit) {
+        StringBuilder sql = new StringBuilder(findJobExecutionDetailsSql);
+        MapSqlParameterSource parameters = new MapSqlParameterSource("schedulerName", schedulerName);
+        if (nonNull(criteria.getTriggerGroupName())) {
+            sql.append(" AND t.TRIGGER_GROUP = :triggerGroupName");
+            parameters.addValue("triggerGroupName", criteria.getTriggerGroupName());
+        }
+        if (nonNull(criteria.getJobGroupName())) {
+            sql.append(" AND t.JOB_GROUP = :jobGroupName");
+            parameters.addValue("jobGroupName", criteria.getJobGroupName());
+        }
+        if (nonNull(criteria.getTriggerState())) {
+            sql.append(" AND t.TRIGGER_STATE IN (:storedTriggerStates)");
+            parameters.addValue("storedTriggerStates", getStoredTriggerStates(criteria.getTriggerState()));
+        }
+        if (nonNull(criteria.getJobClassName())) {
+            sql.append(" AND j.JOB_CLASS_NAME = :jobClassName");
+            parameters.addValue("jobClassName", criteria.getJobClassName());
+        }
+        if (nonNull(criteria.getNextFireTimeFrom())) {
+            sql.append(" AND t.NEXT_FIRE_TIME >= :nextFireTimeFrom");
+            parameters.addValue("nextFireTimeFrom", criteria.getNextFireTimeFrom());
+        }
+        if (nonNull(criteria.getNextFireTimeTo())) {
+            sql.append(" AND t.NEXT_FIRE_TIME <= :nextFireTimeTo");
+            parameters.addValue("nextFireTimeTo", criteria.getNextFireTimeTo());
+        }
+        JobExecutionDetailsCursor cursor = criteria.getCursor();
+        if (nonNull(cursor)) {
+            //redundant "NEXT_FIRE_TIME >=" bound keeps keyset condition usable as index range
+            sql.append(" AND t.NEXT_FIRE_TIME >= :cursorNextFireTime AND (t.NEXT_FIRE_TIME > :cursorNextFireTime " +
+                    "OR (t.NEXT_FIRE_TIME = :cursorNextFireTime AND (t.TRIGGER_NAME > :cursorTriggerName " +
+                    "OR (t.TRIGGER_NAME = :cursorTriggerName AND t.TRIGGER_GROUP > :cursorTriggerGroupName))))");
+            parameters
+                    .addValue("cursorNextFireTime", cursor.getNextFireTime())
+                    .addValue("cursorTriggerName", cursor.getTriggerName())
+                    .addValue("cursorTriggerGroupName", cursor.getTriggerGroupName());
+        }
+        sql.append(ORDER_BY).append(" LIMIT ").append(limit);
+        return namedParameterJdbcTemplate.query(sql.toString(), parameters,
+                (resultSet, rowNumber) -> convertRowToJobExecutionDetails(resultSet));
+    }
+
+    public Map<TriggerKey, Trigger.TriggerState> findAllTriggerStates(String schedulerName) {
+        Map<TriggerKey, Trigger.TriggerState> triggerStates = new HashMap<>();
+        namedParameterJdbcTemplate.getJdbcTemplate().query(findAllTriggerStatesSql, resultSet -> {
+            triggerStates.put(new TriggerKey(resultSet.getString("TRIGGER_NAME"), resultSet.getString("TRIGGER_GROUP")),
+                    convertTriggerState(resultSet.getString("TRIGGER_STATE")));
+        }, schedulerName);
+        return triggerStates;
+    }
+
+    //one query instead of a job store transaction per job, job data maps are deserialized like in StdJDBCDelegate
+    public Map<JobKey, JobDetail> findAllJobDetails(String schedulerName) {
+        Map<JobKey, JobDetail> jobDetails = new HashMap<>();
+        namedParameterJdbcTemplate.getJdbcTemplate().query(findAllJobDetailsSql, resultSet -> {
+            JobDetail jobDetail = convertRowToJobDetail(resultSet);
+            jobDetails.put(jobDetail.getKey(), jobDetail);
+        }, schedulerName);
+        return jobDetails;
+    }
+
+    //one query instead of a job store transaction per trigger, triggers which are not simple or cron triggers
+    //are mapped to null and have to be loaded by the scheduler
+    public Map<TriggerKey, Trigger> findAllTriggers(String schedulerName) {
+        Map<TriggerKey, Trigger> triggers = new HashMap<>();
+        namedParameterJdbcTemplate.getJdbcTemplate().query(findAllTriggersSql, resultSet -> {
+            triggers.put(new TriggerKey(resultSet.getString("TRIGGER_NAME"), resultSet.getString("TRIGGER_GROUP")),
+                    convertRowToTrigger(resultSet));
+        }, schedulerName);
+        return triggers;
+    }
+
+    public Set<TriggerKey> findExistingTriggerKeys(String schedulerName, Collection<TriggerKey> triggerKeys) {
+        if (triggerKeys.isEmpty()) {
+            return Collections.emptySet();
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("schedulerName", schedulerName)
+                .addValue("triggerKeys", triggerKeys.stream()
+                        .map(triggerKey -> new Object[]{triggerKey.getName(), triggerKey.getGroup()})
+                        .collect(Collectors.toList()));
+        return new HashSet<>(namedParameterJdbcTemplate.query(findExistingTriggerKeysSql, parameters,
+                (resultSet, rowNumber) ->
+                        new TriggerKey(resultSet.getString("TRIGGER_NAME"), resultSet.getString("TRIGGER_GROUP"))));
+    }
+
+    private static List<String> getStoredTriggerStates(Trigger.TriggerState triggerState) {
+        List<String> storedTriggerStates = TRIGGER_STATES.entrySet().stream()
+                .filter(entry -> entry.getValue() == triggerState)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        return storedTriggerStates.isEmpty() ? Collections.singletonList(Constants.STATE_DELETED) : storedTriggerStates;
+    }
+
+    //like quartz, a missing state is NONE and any other not mapped state is NORMAL
+    private static Trigger.TriggerState convertTriggerState(String storedTriggerState) {
+        return isNull(storedTriggerState)
+                ? Trigger.TriggerState.NONE : TRIGGER_STATES.getOrDefault(storedTriggerState, Trigger.TriggerState.NORMAL);
+    }
+
+    private JobDetail convertRowToJobDetail(ResultSet resultSet) throws SQLException {
+        String jobClassName = resultSet.getString("JOB_CLASS_NAME");
+        Class<? extends Job> jobClass;
+        try {
+            jobClass = ClassUtils.forName(jobClassName, getClass().getClassLoader()).asSubclass(Job.class);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Job class " + jobClassName + " is not found", e);
+        }
+        return JobBuilder.newJob(jobClass)
+                .withIdentity(resultSet.getString("JOB_NAME"), resultSet.getString("JOB_GROUP"))
+                .withDescription(resultSet.getString("DESCRIPTION"))
+                .storeDurably(resultSet.getBoolean("IS_DURABLE"))
+                .requestRecovery(resultSet.getBoolean("REQUESTS_RECOVERY"))
+                .usingJobData(convertJobData(resultSet.getBytes("JOB_DATA")))
+                .build();
+    }
+
+    //the same trigger as StdJDBCDelegate.selectTrigger builds, null for trigger types which are not joined
+    private Trigger convertRowToTrigger(ResultSet resultSet) throws SQLException {
+        String triggerType = resultSet.getString("TRIGGER_TYPE");
+        ScheduleBuilder<? extends Trigger> scheduleBuilder;
+        if (Constants.TTYPE_SIMPLE.equals(triggerType)) {
+            scheduleBuilder = SimpleScheduleBuilder.simpleSchedule()
+                    .withRepeatCount(resultSet.getInt("REPEAT_COUNT"))
+                    .withIntervalInMilliseconds(resultSet.getLong("REPEAT_INTERVAL"));
+        } else if (Constants.TTYPE_CRON.equals(triggerType)) {
+            String timeZoneId = resultSet.getString("TIME_ZONE_ID");
+            scheduleBuilder = nonNull(timeZoneId)
+                    ? CronScheduleBuilder.cronSchedule(resultSet.getString("CRON_EXPRESSION"))
+                            .inTimeZone(TimeZone.getTimeZone(timeZoneId))
+                    : CronScheduleBuilder.cronSchedule(resultSet.getString("CRON_EXPRESSION"));
+        } else {
+            return null;
+        }
+        long endTime = resultSet.getLong("END_TIME");
+        OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                .withIdentity(resultSet.getString("TRIGGER_NAME"), resultSet.getString("TRIGGER_GROUP"))
+                .forJob(resultSet.getString("JOB_NAME"), resultSet.getString("JOB_GROUP"))
+                .withDescription(resultSet.getString("DESCRIPTION"))
+                .withPriority(resultSet.getInt("PRIORITY"))
+                .startAt(new Date(resultSet.getLong("START_TIME")))
+                .endAt(endTime > 0 ? new Date(endTime) : null)
+                .modifiedByCalendar(resultSet.getString("CALENDAR_NAME"))
+                .usingJobData(convertJobData(resultSet.getBytes("JOB_DATA")))
+                .withSchedule(scheduleBuilder)
+                .build();
+        trigger.setMisfireInstruction(resultSet.getInt("MISFIRE_INSTR"));
+        long nextFireTime = resultSet.getLong("NEXT_FIRE_TIME");
+        long previousFireTime = resultSet.getLong("PREV_FIRE_TIME");
+        trigger.setNextFireTime(nextFireTime > 0 ? new Date(nextFireTime) : null);
+        trigger.setPreviousFireTime(previousFireTime > 0 ? new Date(previousFireTime) : null);
+        if (trigger instanceof SimpleTriggerImpl) {
+            ((SimpleTriggerImpl) trigger).setTimesTriggered(resultSet.getInt("TIMES_TRIGGERED"));
+        }
+        return trigger;
+    }
+
+    private JobDataMap convertJobData(byte[] jobData) {
+        if (isNull(jobData) || jobData.length == 0) {
+            return new JobDataMap();
+        }
+        try (InputStream inputStream = new ByteArrayInputStream(jobData)) {
+            if (isJobDataStoredAsProperties) {
+                Properties properties = new Properties();
+                properties.load(inputStream);
+                return new JobDataMap(properties);
+            }
+            try (ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
+                return new JobDataMap((Map<?, ?>) objectInputStream.readObject());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Job data class is not found", e);
+        }
+    }
+
+    private static JobExecutionDetails convertRowToJobExecutionDetails(ResultSet resultSet) throws SQLException {
+        long nextFireTime = resultSet.getLong("NEXT_FIRE_TIME");
+        boolean isNextFireTimeSpecified = !resultSet.wasNull() && nextFireTime > 0;
+        return JobExecutionDetails.builder()
+                .triggerClassName(TRIGGER_CLASS_NAMES.get(resultSet.getString("TRIGGER_TYPE")))
+                .triggerKey(new TriggerKey(resultSet.getString("TRIGGER_NAME"), resultSet.getString("TRIGGER_GROUP")))
+                .triggerDescription(resultSet.getString("TRIGGER_DESCRIPTION"))
+                .misfireInstruction(resultSet.getInt("MISFIRE_INSTR"))
+                .nextFireTime(isNextFireTimeSpecified
+                        ? Instant.ofEpochMilli(nextFireTime).atZone(ZoneId.systemDefault()).toLocalDateTime() : null)
+                .triggerState(convertTriggerState(resultSet.getString("TRIGGER_STATE")).name())
+                .jobClassName(resultSet.getString("JOB_CLASS_NAME"))
+                .jobKey(new JobKey(resultSet.getString("JOB_NAME"), resultSet.getString("JOB_GROUP")))
+                .jobDetailDescription(resultSet.getString("JOB_DESCRIPTION"))
+                .concurrentExecutionDisallowed(resultSet.getBoolean("IS_NONCONCURRENT"))
+                .persistJobDataAfterExecution(resultSet.getBoolean("IS_UPDATE_DATA"))
+                .jobSelfRecovered(resultSet.getBoolean("REQUESTS_RECOVERY"))
+                .jobDetailsRemainStoredAfterExecution(resultSet.getBoolean("IS_DURABLE"))
+                .build();
+    }
+}
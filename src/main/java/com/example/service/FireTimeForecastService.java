@@ -0,0 +1,314 @@
+package com.example.service;
+
+import com.example.domain.FireCountDto;
+import com.example.domain.FireTimeForecastDto;
+import com.example.domain.FireTimeForecastParameters;
+import com.example.domain.FireTimeForecastResolution;
+import com.example.domain.JobLogLevel;
+import com.example.domain.ScheduledFireDto;
+import com.example.util.FireTimeForecastUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.CronExpression;
+import org.quartz.CronTrigger;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+//walks future fire times of active triggers lazily, one pending fire time per trigger is kept in memory
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class FireTimeForecastService {
+
+    private static final Comparator<FireTimeCursor> FIRE_TIME_ORDER = Comparator
+            .comparingLong(FireTimeCursor::getFireTime)
+            .thenComparing(fireTimeCursor -> fireTimeCursor.getTrigger().getKey());
+
+    private final SchedulerStateService schedulerStateService;
+    private final JobLogService jobLogService;
+
+    @Value("${job.forecast.default-horizon-minutes:60}")
+    private int defaultHorizonMinutes;
+    @Value("${job.forecast.max-horizon-minutes:1440}")
+    private int maxHorizonMinutes;
+    @Value("${job.forecast.default-limit:10}")
+    private int defaultLimit;
+    @Value("${job.forecast.max-limit:1000}")
+    private int maxLimit;
+
+    public FireTimeForecastDto getFireCounts(FireTimeForecastParameters parameters) {
+        FireTimeForecastUtils.validateFireTimeForecastParameters(parameters, maxHorizonMinutes);
+        long startTime = FireTimeForecastUtils.getStartTime(parameters);
+        long endTime = startTime + getHorizonMs(parameters);
+        FireTimeForecastResolution resolution = FireTimeForecastUtils.getResolution(parameters);
+        long bucketSizeMs = FireTimeForecastUtils.getBucketSizeMs(resolution);
+        List<Trigger> triggers = getActiveTriggers(parameters.getTriggerGroupName());
+        long[] fireCounts = countFireTimes(triggers, startTime, endTime, bucketSizeMs);
+
+        List<FireCountDto> fireCountDtoList = new ArrayList<>();
+        long totalFireCount = 0;
+        int peakBucketIndex = 0;
+        for (int bucketIndex = 0; bucketIndex < fireCounts.length; bucketIndex++) {
+            if (fireCounts[bucketIndex] == 0) {
+                continue;
+            }
+            totalFireCount += fireCounts[bucketIndex];
+            if (fireCounts[bucketIndex] > fireCounts[peakBucketIndex]) {
+                peakBucketIndex = bucketIndex;
+            }
+            fireCountDtoList.add(FireCountDto.builder()
+                    .bucket(FireTimeForecastUtils.formatTime(startTime + bucketIndex * bucketSizeMs))
+                    .count(fireCounts[bucketIndex])
+                    .build());
+        }
+        return FireTimeForecastDto.builder()
+                .startDate(FireTimeForecastUtils.formatTime(startTime))
+                .endDate(FireTimeForecastUtils.formatTime(endTime))
+                .resolution(resolution)
+                .triggerCount((long) triggers.size())
+                .totalFireCount(totalFireCount)
+                .peakBucket(totalFireCount > 0
+                        ? FireTimeForecastUtils.formatTime(startTime + peakBucketIndex * bucketSizeMs) : null)
+                .peakFireCount(totalFireCount > 0 ? fireCounts[peakBucketIndex] : 0)
+                //average is taken over all buckets of the horizon, including buckets without fires
+                .peakToAverageRatio(totalFireCount > 0
+                        ? (double) fireCounts[peakBucketIndex] * fireCounts.length / totalFireCount : null)
+                .fireCounts(fireCountDtoList)
+                .build();
+    }
+
+    //k-way merge of fire time sequences of the group triggers, stops after limit fires per group
+    public Map<String, List<ScheduledFireDto>> getNextFires(FireTimeForecastParameters parameters) {
+        FireTimeForecastUtils.validateFireTimeForecastParameters(parameters, maxHorizonMinutes);
+        long startTime = FireTimeForecastUtils.getStartTime(parameters);
+        long endTime = startTime + getHorizonMs(parameters);
+        int limit = nonNull(parameters.getLimit()) ? Math.min(parameters.getLimit(), maxLimit) : defaultLimit;
+
+        Map<String, List<Trigger>> triggersByGroup = getActiveTriggers(parameters.getTriggerGroupName()).stream()
+                .collect(Collectors.groupingBy(trigger -> trigger.getKey().getGroup(), TreeMap::new, Collectors.toList()));
+        Map<String, List<ScheduledFireDto>> nextFires = new LinkedHashMap<>();
+        triggersByGroup.forEach((triggerGroupName, triggers) -> {
+            PriorityQueue<FireTimeCursor> fireTimeCursors = new PriorityQueue<>(triggers.size(), FIRE_TIME_ORDER);
+            for (Trigger trigger : triggers) {
+                FireTimeCursor fireTimeCursor = new FireTimeCursor(trigger);
+                if (fireTimeCursor.advance(startTime - 1, endTime)) {
+                    fireTimeCursors.add(fireTimeCursor);
+                }
+            }
+            List<ScheduledFireDto> groupFires = new ArrayList<>(Math.min(limit, fireTimeCursors.size()));
+            while (groupFires.size() < limit && !fireTimeCursors.isEmpty()) {
+                FireTimeCursor fireTimeCursor = fireTimeCursors.poll();
+                groupFires.add(convertCursorToScheduledFireDto(fireTimeCursor));
+                if (fireTimeCursor.advance(fireTimeCursor.getFireTime(), endTime)) {
+                    fireTimeCursors.add(fireTimeCursor);
+                }
+            }
+            nextFires.put(triggerGroupName, groupFires);
+        });
+        return nextFires;
+    }
+
+    //fire counts of all active triggers per bucket, starting from start time
+    public long[] getFireCounts(long startTime, long endTime, long bucketSizeMs) {
+        return countFireTimes(getActiveTriggers(null), startTime, endTime, bucketSizeMs);
+    }
+
+    public long[] countFireTimes(List<Trigger> triggers, long startTime, long endTime, long bucketSizeMs) {
+        long[] fireCounts = new long[(int) ((endTime - startTime + bucketSizeMs - 1) / bucketSizeMs)];
+        //bulk created triggers share a handful of cron patterns, every pattern is walked once for all its triggers
+        Map<String, List<CronTrigger>> cronTriggersByPattern = new LinkedHashMap<>();
+        for (Trigger trigger : triggers) {
+            if (trigger instanceof CronTrigger) {
+                CronTrigger cronTrigger = (CronTrigger) trigger;
+                cronTriggersByPattern.computeIfAbsent(
+                        cronTrigger.getCronExpression() + "|" + cronTrigger.getTimeZone().getID(),
+                        pattern -> new ArrayList<>()).add(cronTrigger);
+            } else if (trigger instanceof SimpleTrigger) {
+                countFireTimes((SimpleTrigger) trigger, startTime, endTime, bucketSizeMs, fireCounts);
+            } else {
+                countFireTimes(trigger, startTime, endTime, bucketSizeMs, fireCounts);
+            }
+        }
+        for (List<CronTrigger> cronTriggers : cronTriggersByPattern.values()) {
+            countFireTimes(cronTriggers, startTime, endTime, bucketSizeMs, fireCounts);
+        }
+        return fireCounts;
+    }
+
+    private long getHorizonMs(FireTimeForecastParameters parameters) {
+        int horizonMinutes = nonNull(parameters.getHorizonMinutes()) ? parameters.getHorizonMinutes() : defaultHorizonMinutes;
+        return horizonMinutes * 60_000L;
+    }
+
+    //paused, completed and failed triggers will not fire during forecast horizon
+    private List<Trigger> getActiveTriggers(String triggerGroupName) {
+        List<Trigger> activeTriggers = new ArrayList<>();
+        try {
+            for (Trigger trigger : schedulerStateService.getTriggers(triggerGroupName)) {
+                Trigger.TriggerState triggerState = schedulerStateService.getTriggerState(trigger.getKey());
+                if (triggerState != Trigger.TriggerState.PAUSED && triggerState != Trigger.TriggerState.COMPLETE
+                        && triggerState != Trigger.TriggerState.ERROR) {
+                    activeTriggers.add(trigger);
+                }
+            }
+        } catch (SchedulerException e) {
+            log.warn("Error while getting triggers for fire time forecast. Message: {}", e.getMessage());
+            jobLogService.log(JobLogLevel.WARN, "Error while getting triggers for fire time forecast. Message: {}",
+                    e.getMessage());
+        }
+        return activeTriggers;
+    }
+
+    private void countFireTimes(Trigger trigger, long startTime, long endTime, long bucketSizeMs, long[] fireCounts) {
+        Date fireTime = trigger.getFireTimeAfter(new Date(startTime - 1));
+        while (nonNull(fireTime) && fireTime.getTime() < endTime) {
+            fireCounts[(int) ((fireTime.getTime() - startTime) / bucketSizeMs)]++;
+            fireTime = trigger.getFireTimeAfter(fireTime);
+        }
+    }
+
+    //simple trigger fires at start + k * interval, so fires of every bucket are counted without walking them,
+    //the first fire time is taken from quartz to keep its handling of times triggered and end time
+    private void countFireTimes(SimpleTrigger trigger, long startTime, long endTime, long bucketSizeMs,
+                                long[] fireCounts) {
+        Date firstFireTime = trigger.getFireTimeAfter(new Date(startTime - 1));
+        if (isNull(firstFireTime) || firstFireTime.getTime() >= endTime) {
+            return;
+        }
+        long firstFireTimeMs = firstFireTime.getTime();
+        long repeatIntervalMs = trigger.getRepeatInterval();
+        long lastFireTimeMs = endTime - 1;
+        if (nonNull(trigger.getEndTime())) {
+            lastFireTimeMs = Math.min(lastFireTimeMs, trigger.getEndTime().getTime() - 1);
+        }
+        if (trigger.getRepeatCount() != SimpleTrigger.REPEAT_INDEFINITELY) {
+            long lastRepeatTimeMs = trigger.getStartTime().getTime() + trigger.getRepeatCount() * repeatIntervalMs;
+            lastFireTimeMs = Math.min(lastFireTimeMs, lastRepeatTimeMs);
+        }
+        if (repeatIntervalMs <= 0 || lastFireTimeMs <= firstFireTimeMs) {
+            fireCounts[(int) ((firstFireTimeMs - startTime) / bucketSizeMs)]++;
+            return;
+        }
+
+        int firstBucket = (int) ((firstFireTimeMs - startTime) / bucketSizeMs);
+        int lastBucket = (int) ((lastFireTimeMs - startTime) / bucketSizeMs);
+        long countedFires = 0;
+        for (int bucket = firstBucket; bucket <= lastBucket; bucket++) {
+            long bucketEndTime = Math.min(startTime + (bucket + 1) * bucketSizeMs, lastFireTimeMs + 1);
+            //fires before bucket end are the ones at first fire time + k * interval < bucket end
+            long firesBeforeBucketEnd = (bucketEndTime - firstFireTimeMs + repeatIntervalMs - 1) / repeatIntervalMs;
+            fireCounts[bucket] += firesBeforeBucketEnd - countedFires;
+            countedFires = firesBeforeBucketEnd;
+        }
+    }
+
+    //sweeps shared pattern fire times once, every fire time is counted for triggers whose start and end dates cover it
+    private void countFireTimes(List<CronTrigger> cronTriggers, long startTime, long endTime, long bucketSizeMs,
+                                long[] fireCounts) {
+        CronTrigger firstCronTrigger = cronTriggers.get(0);
+        CronExpression cronExpression;
+        try {
+            cronExpression = new CronExpression(firstCronTrigger.getCronExpression());
+        } catch (ParseException e) {
+            log.warn("Error while parsing cron expression of trigger {}. Message: {}",
+                    firstCronTrigger.getKey(), e.getMessage());
+            return;
+        }
+        cronExpression.setTimeZone(firstCronTrigger.getTimeZone());
+
+        long[] triggerStartTimes = new long[cronTriggers.size()];
+        long[] triggerEndTimes = new long[cronTriggers.size()];
+        int triggerCount = 0;
+        for (CronTrigger cronTrigger : cronTriggers) {
+            //quartz fires cron triggers from the start second inclusive up to the end time inclusive
+            long triggerStartTime = Math.max(startTime, cronTrigger.getStartTime().getTime() / 1000 * 1000);
+            long triggerEndTime = isNull(cronTrigger.getEndTime())
+                    ? endTime - 1 : Math.min(endTime - 1, cronTrigger.getEndTime().getTime());
+            //empty windows are skipped, so every ended trigger is also a started one
+            if (triggerStartTime <= triggerEndTime) {
+                triggerStartTimes[triggerCount] = triggerStartTime;
+                triggerEndTimes[triggerCount] = triggerEndTime;
+                triggerCount++;
+            }
+        }
+        if (triggerCount == 0) {
+            return;
+        }
+        triggerStartTimes = Arrays.copyOf(triggerStartTimes, triggerCount);
+        triggerEndTimes = Arrays.copyOf(triggerEndTimes, triggerCount);
+        Arrays.sort(triggerStartTimes);
+        Arrays.sort(triggerEndTimes);
+
+        int startedCount = 0;
+        int endedCount = 0;
+        Date fireTime = cronExpression.getTimeAfter(new Date(triggerStartTimes[0] - 1));
+        while (nonNull(fireTime) && fireTime.getTime() < endTime && endedCount < triggerEndTimes.length) {
+            long fireTimeMs = fireTime.getTime();
+            while (startedCount < triggerStartTimes.length && triggerStartTimes[startedCount] <= fireTimeMs) {
+                startedCount++;
+            }
+            while (endedCount < triggerEndTimes.length && triggerEndTimes[endedCount] < fireTimeMs) {
+                endedCount++;
+            }
+            fireCounts[(int) ((fireTimeMs - startTime) / bucketSizeMs)] += startedCount - endedCount;
+            fireTime = cronExpression.getTimeAfter(fireTime);
+        }
+    }
+
+    private ScheduledFireDto convertCursorToScheduledFireDto(FireTimeCursor fireTimeCursor) {
+        Trigger trigger = fireTimeCursor.getTrigger();
+        return ScheduledFireDto.builder()
+                .triggerId(trigger.getKey().getName())
+                .triggerGroupName(trigger.getKey().getGroup())
+                .jobId(trigger.getJobKey().getName())
+                .jobGroupName(trigger.getJobKey().getGroup())
+                .fireTime(FireTimeForecastUtils.formatTime(fireTimeCursor.getFireTime()))
+                .build();
+    }
+
+    private static class FireTimeCursor {
+
+        private final Trigger trigger;
+        private long fireTime;
+
+        private FireTimeCursor(Trigger trigger) {
+            this.trigger = trigger;
+        }
+
+        private Trigger getTrigger() {
+            return trigger;
+        }
+
+        private long getFireTime() {
+            return fireTime;
+        }
+
+        //moves cursor to the first fire time after given time, false when trigger does not fire before end time
+        private boolean advance(long afterTime, long endTime) {
+            Date nextFireTime = trigger.getFireTimeAfter(new Date(afterTime));
+            if (isNull(nextFireTime) || nextFireTime.getTime() >= endTime) {
+                return false;
+            }
+            fireTime = nextFireTime.getTime();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.service;
+
+import com.example.domain.GroupOperationDto;
+import com.example.domain.GroupOperationStatus;
+import com.example.domain.GroupOperationType;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+//progress of one asynchronous group operation, updated by the executing thread and read by status requests
+@Getter
+class GroupOperation {
+
+    private final String operationId;
+    private final GroupOperationType operationType;
+    private final String groupName;
+    private final LocalDateTime startDate = LocalDateTime.now();
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile GroupOperationStatus status = GroupOperationStatus.RUNNING;
+    private volatile LocalDateTime endDate;
+    private volatile String errorMessage;
+
+    GroupOperation(String operationId, GroupOperationType operationType, String groupName) {
+        this.operationId = operationId;
+        this.operationType = operationType;
+        this.groupName = groupName;
+    }
+
+    void complete() {
+        endDate = LocalDateTime.now();
+        status = GroupOperationStatus.COMPLETED;
+    }
+
+    void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        endDate = LocalDateTime.now();
+        status = GroupOperationStatus.FAILED;
+    }
+
+    GroupOperationDto toDto() {
+        LocalDateTime currentEndDate = endDate;
+        long elapsedMs = Math.max(Duration.between(startDate,
+                isNull(currentEndDate) ? LocalDateTime.now() : currentEndDate).toMillis(), 1);
+        return GroupOperationDto.builder()
+                .operationId(operationId)
+                .operationType(operationType)
+                .groupName(groupName)
+                .status(status)
+                .totalCount(totalCount.get())
+                .processedCount(processedCount.get())
+                .failedCount(failedCount.get())
+                .itemsPerSecond((processedCount.get() + failedCount.get()) * 1000 / elapsedMs)
+                .startDate(startDate.toString())
+                .endDate(nonNull(currentEndDate) ? currentEndDate.toString() : null)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
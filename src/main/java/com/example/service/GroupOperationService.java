@@ -0,0 +1,174 @@
+package com.example.service;
+
+import com.example.domain.GroupOperationDto;
+import com.example.domain.GroupOperationStatus;
+import com.example.domain.GroupOperationType;
+import com.example.domain.JobLogLevel;
+import com.example.exception.OperationNotFoundException;
+import com.example.exception.ValidationException;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class GroupOperationService {
+
+    private final Scheduler scheduler;
+    private final JobLogService jobLogService;
+    private final Map<String, GroupOperation> operations = new ConcurrentHashMap<>();
+
+    @Value("${job.group-operation.chunk-size:200}")
+    private int chunkSize;
+    @Value("${job.group-operation.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+    @Value("${job.group-operation.threads:2}")
+    private int threads;
+    @Value("${job.group-operation.status-ttl-ms:3600000}")
+    private long statusTtlMs;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("group-operation-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String startOperation(GroupOperationType operationType, String groupName) {
+        if (StringUtils.isEmpty(groupName)) {
+            throw new ValidationException("Required value \"groupName\" is not specified or empty");
+        }
+        GroupOperation operation = new GroupOperation(UUID.randomUUID().toString(), operationType, groupName);
+        operations.put(operation.getOperationId(), operation);
+        executor.execute(() -> execute(operation));
+        return operation.getOperationId();
+    }
+
+    public GroupOperationDto getOperation(String operationId) {
+        GroupOperation operation = operations.get(operationId);
+        if (isNull(operation)) {
+            throw new OperationNotFoundException("Operation with such operationId: " + operationId + " is not found");
+        }
+        return operation.toDto();
+    }
+
+    @Scheduled(fixedDelayString = "${job.group-operation.cleanup-interval-ms:600000}")
+    public void deleteExpiredOperations() {
+        LocalDateTime expirationDate = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(statusTtlMs));
+        operations.values().removeIf(operation -> operation.getStatus() != GroupOperationStatus.RUNNING
+                && operation.getEndDate().isBefore(expirationDate));
+    }
+
+    private void execute(GroupOperation operation) {
+        String groupName = operation.getGroupName();
+        try {
+            switch (operation.getOperationType()) {
+                case PAUSE_JOB_GROUP:
+                    processJobs(operation, scheduler::pauseJob);
+                    break;
+                case RESUME_JOB_GROUP:
+                    processJobs(operation, scheduler::resumeJob);
+                    break;
+                case PAUSE_TRIGGER_GROUP:
+                    operation.getTotalCount().set(getTriggerKeys(groupName).size());
+                    scheduler.pauseTriggers(GroupMatcher.triggerGroupEquals(groupName));
+                    operation.getProcessedCount().set(operation.getTotalCount().get());
+                    break;
+                case RESUME_TRIGGER_GROUP:
+                    operation.getTotalCount().set(getTriggerKeys(groupName).size());
+                    scheduler.resumeTriggers(GroupMatcher.triggerGroupEquals(groupName));
+                    operation.getProcessedCount().set(operation.getTotalCount().get());
+                    break;
+                case UNSCHEDULE_TRIGGER_GROUP:
+                    unscheduleTriggers(operation);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown group operation: " + operation.getOperationType());
+            }
+            operation.complete();
+            jobLogService.log(operation.getFailedCount().get() == 0 ? JobLogLevel.INFO : JobLogLevel.WARN,
+                    "Group operation {} for group {} finished. Processed: {}, failed: {}",
+                    operation.getOperationType(), groupName, operation.getProcessedCount().get(),
+                    operation.getFailedCount().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            operation.fail("Operation was interrupted");
+        } catch (Exception e) {
+            operation.fail(e.getMessage());
+            log.error("Error while executing group operation {} for group {}. Message: {}",
+                    operation.getOperationType(), groupName, e.getMessage());
+            jobLogService.log(JobLogLevel.ERROR, "Error while executing group operation {} for group {}. Message: {}",
+                    operation.getOperationType(), groupName, e.getMessage());
+        }
+    }
+
+    //every job is paused or resumed in its own short job store transaction, chunks only pace the operation
+    private void processJobs(GroupOperation operation, JobKeyAction jobKeyAction)
+            throws SchedulerException, InterruptedException {
+        List<JobKey> jobKeys = new ArrayList<>(scheduler.getJobKeys(GroupMatcher.jobGroupEquals(operation.getGroupName())));
+        operation.getTotalCount().set(jobKeys.size());
+        for (List<JobKey> chunk : Lists.partition(jobKeys, chunkSize)) {
+            for (JobKey jobKey : chunk) {
+                try {
+                    jobKeyAction.apply(jobKey);
+                    operation.getProcessedCount().incrementAndGet();
+                } catch (SchedulerException e) {
+                    log.warn("Error while executing group operation for job {}. Message: {}", jobKey, e.getMessage());
+                    operation.getFailedCount().incrementAndGet();
+                }
+            }
+            TimeUnit.MILLISECONDS.sleep(chunkPauseMs);
+        }
+    }
+
+    private void unscheduleTriggers(GroupOperation operation) throws SchedulerException, InterruptedException {
+        List<TriggerKey> triggerKeys = getTriggerKeys(operation.getGroupName());
+        operation.getTotalCount().set(triggerKeys.size());
+        for (List<TriggerKey> chunk : Lists.partition(triggerKeys, chunkSize)) {
+            //false means some triggers were already removed by someone else, they are counted as processed
+            scheduler.unscheduleJobs(chunk);
+            operation.getProcessedCount().addAndGet(chunk.size());
+            TimeUnit.MILLISECONDS.sleep(chunkPauseMs);
+        }
+    }
+
+    private List<TriggerKey> getTriggerKeys(String triggerGroupName) throws SchedulerException {
+        return new ArrayList<>(scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(triggerGroupName)));
+    }
+
+    @FunctionalInterface
+    private interface JobKeyAction {
+        void apply(JobKey jobKey) throws SchedulerException;
+    }
+}
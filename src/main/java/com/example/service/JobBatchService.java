@@ -0,0 +1,214 @@
+package com.example.service;
+
+import com.example.domain.JobLogLevel;
+import com.example.domain.TriggerDto;
+import com.example.domain.TriggerScheduleResultDto;
+import com.example.domain.TriggerSpec;
+import com.example.exception.ValidationException;
+import com.example.repository.SchedulerJdbcRepository;
+import com.example.util.TriggerUtils;
+import com.google.common.collect.Lists;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class JobBatchService {
+
+    private final Scheduler scheduler;
+    private final JobLogService jobLogService;
+    private final SchedulerStateService schedulerStateService;
+    private final SchedulerJdbcRepository schedulerJdbcRepository;
+    private final TriggerSmoothingService triggerSmoothingService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${job.run.batch.max-size:50000}")
+    private int maxBatchSize;
+    @Value("${job.run.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public List<TriggerScheduleResultDto> scheduleJobs(List<TriggerDto> triggerDtoList) {
+        if (CollectionUtils.isEmpty(triggerDtoList)) {
+            throw new ValidationException("Required list of TriggerDto objects is null or empty");
+        }
+        if (triggerDtoList.size() > maxBatchSize) {
+            throw new ValidationException("List of TriggerDto objects is too large, max size is " + maxBatchSize);
+        }
+        TriggerScheduleResultDto[] results = new TriggerScheduleResultDto[triggerDtoList.size()];
+        TriggerSpec[] triggerSpecs = new TriggerSpec[triggerDtoList.size()];
+        Trigger[] triggers = new Trigger[triggerDtoList.size()];
+        //validation and conversion do not touch the job store, so items are processed in parallel
+        IntStream.range(0, triggerDtoList.size()).parallel().forEach(index -> {
+            try {
+                triggerSpecs[index] = triggerSmoothingService.smooth(
+                        TriggerUtils.compileTriggerDto(triggerDtoList.get(index)));
+                triggers[index] = TriggerUtils.convertSpecToTrigger(triggerSpecs[index]);
+            } catch (Exception e) {
+                results[index] = failed(triggerDtoList.get(index), e.getMessage());
+            }
+        });
+        List<Integer> validIndexes = getValidIndexes(triggerDtoList, triggers, results);
+        for (List<Integer> chunkIndexes : Lists.partition(validIndexes, chunkSize)) {
+            scheduleChunk(chunkIndexes, triggerDtoList, triggers, results);
+        }
+        //smoothing reservations of triggers which are not scheduled are cancelled
+        IntStream.range(0, triggerSpecs.length)
+                .filter(index -> nonNull(triggerSpecs[index]) && !results[index].getIsScheduled())
+                .forEach(index -> triggerSmoothingService.cancel(triggerSpecs[index]));
+
+        long scheduledCount = Arrays.stream(results).filter(TriggerScheduleResultDto::getIsScheduled).count();
+        long failedCount = results.length - scheduledCount;
+        jobLogService.log(failedCount == 0 ? JobLogLevel.INFO : JobLogLevel.WARN,
+                "Batch job scheduling finished. Scheduled triggers: {}, failed triggers: {}", scheduledCount, failedCount);
+        return Arrays.asList(results);
+    }
+
+    //drops duplicated trigger keys and triggers of not existing jobs, job details are read once per job
+    private List<Integer> getValidIndexes(List<TriggerDto> triggerDtoList, Trigger[] triggers,
+                                          TriggerScheduleResultDto[] results) {
+        Map<JobKey, Boolean> jobExistence = new HashMap<>();
+        Set<TriggerKey> triggerKeys = new HashSet<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int index = 0; index < triggers.length; index++) {
+            Trigger trigger = triggers[index];
+            if (isNull(trigger)) {
+                continue;
+            }
+            boolean isJobExisting = jobExistence.computeIfAbsent(trigger.getJobKey(), this::checkJobDetailExists);
+            if (!isJobExisting) {
+                results[index] = failed(triggerDtoList.get(index), "JobDetail with such jobId: " +
+                        trigger.getJobKey().getName() + " and jobGroupName: " + trigger.getJobKey().getGroup() +
+                        " is not found");
+            } else if (!triggerKeys.add(trigger.getKey())) {
+                results[index] = failed(triggerDtoList.get(index), "Trigger is specified more than once in the list");
+            } else {
+                validIndexes.add(index);
+            }
+        }
+        return validIndexes;
+    }
+
+    //triggers of a chunk are stored in one transaction without replacing, so a trigger stored concurrently after
+    //the existence check is never overwritten, and already stored jobs are not rewritten at all
+    private void scheduleChunk(List<Integer> chunkIndexes, List<TriggerDto> triggerDtoList, Trigger[] triggers,
+                               TriggerScheduleResultDto[] results) {
+        try {
+            List<Integer> newIndexes = getNewTriggerIndexes(chunkIndexes, triggerDtoList, triggers, results);
+            if (newIndexes.isEmpty()) {
+                return;
+            }
+            SchedulerException error = transactionTemplate.execute(status -> {
+                for (Integer index : newIndexes) {
+                    try {
+                        scheduler.scheduleJob(triggers[index]);
+                    } catch (SchedulerException e) {
+                        status.setRollbackOnly();
+                        return e;
+                    }
+                }
+                return null;
+            });
+            if (isNull(error)) {
+                newIndexes.forEach(index -> results[index] = scheduled(triggerDtoList.get(index)));
+            } else if (error instanceof ObjectAlreadyExistsException) {
+                log.warn("Trigger of batch already exists, {} triggers are scheduled one by one. Message: {}",
+                        newIndexes.size(), error.getMessage());
+                newIndexes.forEach(index -> results[index] = scheduleTrigger(triggerDtoList.get(index), triggers[index]));
+            } else {
+                throw error;
+            }
+        } catch (SchedulerException | DataAccessException | TransactionException e) {
+            log.error("Error while scheduling batch of {} triggers. Message: {}", chunkIndexes.size(), e.getMessage());
+            chunkIndexes.stream()
+                    .filter(index -> isNull(results[index]))
+                    .forEach(index -> results[index] = failed(triggerDtoList.get(index), e.getMessage()));
+        }
+    }
+
+    //already existing triggers are reported without a write, the store rejects the ones created after this check
+    private List<Integer> getNewTriggerIndexes(List<Integer> chunkIndexes, List<TriggerDto> triggerDtoList,
+                                               Trigger[] triggers, TriggerScheduleResultDto[] results)
+            throws SchedulerException {
+        Set<TriggerKey> existingTriggerKeys = schedulerJdbcRepository.findExistingTriggerKeys(
+                scheduler.getSchedulerName(),
+                chunkIndexes.stream().map(index -> triggers[index].getKey()).collect(Collectors.toList()));
+        List<Integer> newIndexes = new ArrayList<>();
+        for (Integer index : chunkIndexes) {
+            if (existingTriggerKeys.contains(triggers[index].getKey())) {
+                results[index] = failed(triggerDtoList.get(index), getAlreadyExistsMessage(triggers[index]));
+            } else {
+                newIndexes.add(index);
+            }
+        }
+        return newIndexes;
+    }
+
+    private TriggerScheduleResultDto scheduleTrigger(TriggerDto triggerDto, Trigger trigger) {
+        try {
+            scheduler.scheduleJob(trigger);
+            return scheduled(triggerDto);
+        } catch (ObjectAlreadyExistsException e) {
+            return failed(triggerDto, getAlreadyExistsMessage(trigger));
+        } catch (SchedulerException | DataAccessException e) {
+            log.warn("Error while scheduling trigger {}. Message: {}", trigger.getKey(), e.getMessage());
+            return failed(triggerDto, e.getMessage());
+        }
+    }
+
+    private static String getAlreadyExistsMessage(Trigger trigger) {
+        return "Trigger with such triggerId: " + trigger.getKey().getName() + " and triggerGroupName: " +
+                trigger.getKey().getGroup() + " already exists";
+    }
+
+    private boolean checkJobDetailExists(JobKey jobKey) {
+        try {
+            return nonNull(schedulerStateService.getJobDetail(jobKey));
+        } catch (SchedulerException e) {
+            log.warn("Error while getting jobDetail {}. Message: {}", jobKey, e.getMessage());
+            return false;
+        }
+    }
+
+    private static TriggerScheduleResultDto scheduled(TriggerDto triggerDto) {
+        return TriggerScheduleResultDto.builder()
+                .triggerId(triggerDto.getTriggerId())
+                .triggerGroupName(triggerDto.getTriggerGroupName())
+                .isScheduled(true)
+                .build();
+    }
+
+    private static TriggerScheduleResultDto failed(TriggerDto triggerDto, String errorMessage) {
+        return TriggerScheduleResultDto.builder()
+                .triggerId(nonNull(triggerDto) ? triggerDto.getTriggerId() : null)
+                .triggerGroupName(nonNull(triggerDto) ? triggerDto.getTriggerGroupName() : null)
+                .isScheduled(false)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
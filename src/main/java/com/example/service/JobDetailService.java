@@ -10,14 +10,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.quartz.*;
-import org.quartz.impl.matchers.GroupMatcher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
@@ -30,32 +28,22 @@ public class JobDetailService {
 
     private final Scheduler scheduler;
     private final JobLogService jobLogService;
+    private final SchedulerStateService schedulerStateService;
 
     public List<JobDetailDto> getJobDetailList(String jobId, String jobGroupName) {
-        Set<JobKey> jobKeys = null;
+        List<JobDetail> jobDetails = null;
         try {
-            jobKeys = StringUtils.isNotEmpty(jobId)
-                    ? Collections.singleton(new JobKey(jobId, jobGroupName))
-                    : StringUtils.isEmpty(jobGroupName)
-                        ? scheduler.getJobKeys(GroupMatcher.anyGroup())
-                        : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(jobGroupName));
+            jobDetails = StringUtils.isNotEmpty(jobId)
+                    ? Collections.singletonList(schedulerStateService.getJobDetail(new JobKey(jobId, jobGroupName)))
+                    : schedulerStateService.getJobDetails(jobGroupName);
         } catch (SchedulerException e) {
             log.warn("Error while getting jobDetail list. Message: {}", e.getMessage());
-            jobLogService.log(JobLogLevel.WARN, "Error while getting jobDetail list. Message: " + e.getMessage());
+            jobLogService.log(JobLogLevel.WARN, "Error while getting jobDetail list. Message: {}", e.getMessage());
         }
 
-        return CollectionUtils.isEmpty(jobKeys)
+        return CollectionUtils.isEmpty(jobDetails)
                 ? emptyList()
-                : jobKeys.stream()
-                .map(jobKey -> {
-                    try {
-                        return scheduler.getJobDetail(jobKey);
-                    } catch (SchedulerException e) {
-                        log.warn("Error while getting jobDetail list. Message: {}", e.getMessage());
-                        jobLogService.log(JobLogLevel.WARN, "Error while getting jobDetail list. Message: " + e.getMessage());
-                        return null;
-                    }
-                })
+                : jobDetails.stream()
                 .map(JobDetailUtils::convertJobDetailToDto)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
@@ -68,16 +56,16 @@ public class JobDetailService {
             scheduler.addJob(jobDetail, false, true);
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(new JobKey(jobDetailDto.getJobId(), jobDetailDto.getJobGroupName()).toString())
-                    .errorMessage("Job detail successfully saved")
+                    .jobKey(new JobKey(jobDetailDto.getJobId(), jobDetailDto.getJobGroupName()))
+                    .message("Job detail successfully saved")
                     .build();
             jobLogService.log(jobLog);
             return true;
         } catch (SchedulerException | ClassNotFoundException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(new JobKey(jobDetailDto.getJobId(), jobDetailDto.getJobGroupName()).toString())
-                    .errorMessage("Error while saving jobDetail. Message: " + e.getMessage())
+                    .jobKey(new JobKey(jobDetailDto.getJobId(), jobDetailDto.getJobGroupName()))
+                    .message("Error while saving jobDetail. Message: {}", e.getMessage())
                     .build();
             log.error("Error while saving jobDetail. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -90,16 +78,16 @@ public class JobDetailService {
             boolean isJobDeleted = scheduler.deleteJob(new JobKey(jobId, jobGroupName));
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(new JobKey(jobId, jobGroupName).toString())
-                    .errorMessage(isJobDeleted ? "Job detail successfully deleted" : "Job detail deleting failed")
+                    .jobKey(new JobKey(jobId, jobGroupName))
+                    .message(isJobDeleted ? "Job detail successfully deleted" : "Job detail deleting failed")
                     .build();
             jobLogService.log(jobLog);
             return isJobDeleted;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(new JobKey(jobId, jobGroupName).toString())
-                    .errorMessage("Error while deleting jobDetail. Message: " + e.getMessage())
+                    .jobKey(new JobKey(jobId, jobGroupName))
+                    .message("Error while deleting jobDetail. Message: {}", e.getMessage())
                     .build();
             log.error("Error while deleting jobDetail. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -112,7 +100,7 @@ public class JobDetailService {
             String jobId = jobDetailDto.getJobId();
             String jobGroupName = jobDetailDto.getJobGroupName();
             checkJobDetailExists(jobId, jobGroupName);
-            JobDetail jobDetail = scheduler.getJobDetail(new JobKey(jobId, jobGroupName));
+            JobDetail jobDetail = schedulerStateService.getJobDetail(new JobKey(jobId, jobGroupName));
             JobDetail updatedJobDetail = JobBuilder
                     .newJob(jobDetail.getJobClass())
                     .withIdentity(jobDetail.getKey())
@@ -129,16 +117,16 @@ public class JobDetailService {
             scheduler.addJob(updatedJobDetail, true, true);
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(new JobKey(jobId, jobGroupName).toString())
-                    .errorMessage("Job detail successfully updated")
+                    .jobKey(new JobKey(jobId, jobGroupName))
+                    .message("Job detail successfully updated")
                     .build();
             jobLogService.log(jobLog);
             return true;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(new JobKey(jobDetailDto.getJobId(), jobDetailDto.getJobGroupName()).toString())
-                    .errorMessage("Error while updating jobDetail. Message: " + e.getMessage())
+                    .jobKey(new JobKey(jobDetailDto.getJobId(), jobDetailDto.getJobGroupName()))
+                    .message("Error while updating jobDetail. Message: {}", e.getMessage())
                     .build();
             log.error("Error while updating jobDetail. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -151,7 +139,7 @@ public class JobDetailService {
         if (StringUtils.isEmpty(jobId) || StringUtils.isEmpty(jobGroupName)) {
             throw new ValidationException("Required value \"jobId\" or \"jobGroupName\" is not specified or empty");
         }
-        boolean jobDetailExists = scheduler.checkExists(new JobKey(jobId, jobGroupName));
+        boolean jobDetailExists = schedulerStateService.checkExists(new JobKey(jobId, jobGroupName));
         if (!jobDetailExists) {
             throw new JobDetailNotFoundException(
                     "JobDetail with such jobId: " + jobId + " and jobGroupName: " + jobGroupName + " is not found");
@@ -0,0 +1,295 @@
+package com.example.service;
+
+import com.example.domain.JobLogCriteria;
+import com.example.domain.JobLogExportFormat;
+import com.example.domain.JobLogParameters;
+import com.example.exception.ValidationException;
+import com.example.repository.JobLogJdbcRepository;
+import com.example.util.JobLogUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class JobLogExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,date,log_level,job_key,trigger_key,error_message\n";
+    private static final String EXPORT_FILE_SUFFIX = ".gz";
+
+    private final JobLogService jobLogService;
+    private final JobLogJdbcRepository jobLogJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${job.log.export.directory:exports}")
+    private String directory;
+    @Value("${job.log.export.file-ttl-ms:86400000}")
+    private long fileTtlMs;
+
+    private Path directoryPath;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directoryPath = Files.createDirectories(Paths.get(directory));
+    }
+
+    public JobLogExportFormat parseFormat(String format) {
+        try {
+            return JobLogExportFormat.valueOf(format.toUpperCase());
+        } catch (Exception e) {
+            throw new ValidationException("Value \"format\" is specified incorrectly or empty");
+        }
+    }
+
+    //only exports with past end date are stored for range requests, their content rarely changes between generations
+    public boolean isResumable(JobLogParameters parameters) {
+        return nonNull(parameters.getEndDate()) && LocalDateTime.parse(parameters.getEndDate()).isBefore(LocalDateTime.now());
+    }
+
+    public String getExportId(JobLogParameters parameters, JobLogExportFormat format) {
+        try {
+            String exportDefinition = objectMapper.writeValueAsString(parameters) + format.name();
+            return Hashing.sha256().hashString(exportDefinition, StandardCharsets.UTF_8).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void export(JobLogParameters parameters, JobLogExportFormat format, OutputStream outputStream) throws IOException {
+        jobLogService.validateJobLogParameters(parameters);
+        JobLogCriteria criteria = JobLogUtils.convertParametersToCriteria(parameters);
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+        if (format == JobLogExportFormat.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(gzipOutputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write(CSV_HEADER);
+            jobLogJdbcRepository.exportAllByCriteria(criteria, resultSet -> writeCsvRow(resultSet, writer));
+            writer.flush();
+        } else {
+            JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(gzipOutputStream);
+            jsonGenerator.setRootValueSeparator(null);
+            jobLogJdbcRepository.exportAllByCriteria(criteria, resultSet -> writeJsonRow(resultSet, jsonGenerator));
+            jsonGenerator.flush();
+        }
+        gzipOutputStream.finish();
+        gzipOutputStream.flush();
+    }
+
+    //every stored file gets a new generation id, which is used as ETag, so range requests never join bytes of
+    //different generations even when export of the same parameters produces other bytes later
+    public String createGenerationId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public String getGenerationId(Path exportPath) {
+        String fileName = exportPath.getFileName().toString();
+        return fileName.substring(fileName.indexOf('.') + 1, fileName.length() - EXPORT_FILE_SUFFIX.length());
+    }
+
+    //null when there is no stored file for these parameters
+    public Path findExportFile(JobLogParameters parameters, JobLogExportFormat format) throws IOException {
+        String exportId = getExportId(parameters, format);
+        try (Stream<Path> paths = Files.list(directoryPath)) {
+            return paths.filter(path -> isExportFile(path, exportId))
+                    .max(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                    .orElse(null);
+        }
+    }
+
+    //streams export to the client while the same bytes are stored, following range requests are served from file.
+    //When client disconnects, export is completed into the file, so the interrupted download can be resumed
+    public void exportAndStore(JobLogParameters parameters, JobLogExportFormat format, String generationId,
+                               OutputStream outputStream) throws IOException {
+        String exportId = getExportId(parameters, format);
+        Path exportPath = directoryPath.resolve(exportId + "." + generationId + EXPORT_FILE_SUFFIX);
+        Path temporaryPath = directoryPath.resolve(UUID.randomUUID() + ".tmp");
+        TeeOutputStream teeOutputStream;
+        try (OutputStream fileOutputStream = new BufferedOutputStream(Files.newOutputStream(temporaryPath), BUFFER_SIZE)) {
+            teeOutputStream = new TeeOutputStream(outputStream, fileOutputStream);
+            export(parameters, format, teeOutputStream);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryPath);
+            throw e;
+        }
+        Files.move(temporaryPath, exportPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deletePreviousGenerations(exportId, exportPath);
+        if (nonNull(teeOutputStream.getClientException())) {
+            throw teeOutputStream.getClientException();
+        }
+    }
+
+    public void copyRange(Path exportPath, long start, long end, OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(exportPath, StandardOpenOption.READ)) {
+            WritableByteChannel outputChannel = Channels.newChannel(outputStream);
+            long position = start;
+            while (position <= end) {
+                long transferred = channel.transferTo(position, end - position + 1, outputChannel);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${job.log.export.cleanup-interval-ms:3600000}")
+    public void deleteExpiredExportFiles() {
+        long expirationTime = System.currentTimeMillis() - fileTtlMs;
+        try (Stream<Path> paths = Files.list(directoryPath)) {
+            paths.filter(path -> path.toFile().lastModified() < expirationTime)
+                    .forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Error while deleting expired job log export files. Message: {}", e.getMessage());
+        }
+    }
+
+    private void deletePreviousGenerations(String exportId, Path exportPath) {
+        try (Stream<Path> paths = Files.list(directoryPath)) {
+            paths.filter(path -> isExportFile(path, exportId) && !path.equals(exportPath))
+                    .forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Error while deleting previous job log export files. Message: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isExportFile(Path path, String exportId) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(exportId + ".") && fileName.endsWith(EXPORT_FILE_SUFFIX);
+    }
+
+    private void writeCsvRow(ResultSet resultSet, Writer writer) throws SQLException {
+        try {
+            writer.write(Integer.toString(resultSet.getInt("id")));
+            writer.write(',');
+            writer.write(resultSet.getTimestamp("date", JobLogUtils.utcCalendar()).toLocalDateTime().toString());
+            writer.write(',');
+            writer.write(resultSet.getString("log_level"));
+            writer.write(',');
+            writeCsvValue(resultSet.getString("job_key"), writer);
+            writer.write(',');
+            writeCsvValue(resultSet.getString("trigger_key"), writer);
+            writer.write(',');
+            writeCsvValue(jobLogJdbcRepository.getMessage(resultSet), writer);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvValue(String value, Writer writer) throws IOException {
+        if (isNull(value)) {
+            return;
+        }
+        boolean isQuotingRequired = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!isQuotingRequired) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void writeJsonRow(ResultSet resultSet, JsonGenerator jsonGenerator) throws SQLException {
+        try {
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeNumberField("id", resultSet.getInt("id"));
+            jsonGenerator.writeStringField("date",
+                    resultSet.getTimestamp("date", JobLogUtils.utcCalendar()).toLocalDateTime().toString());
+            jsonGenerator.writeStringField("jobLogLevel", resultSet.getString("log_level"));
+            jsonGenerator.writeStringField("jobKey", resultSet.getString("job_key"));
+            jsonGenerator.writeStringField("triggerKey", resultSet.getString("trigger_key"));
+            jsonGenerator.writeStringField("errorMessage", jobLogJdbcRepository.getMessage(resultSet));
+            jsonGenerator.writeEndObject();
+            jsonGenerator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //write error of the client stream is kept and further bytes are written only to the file
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream clientOutputStream;
+        private final OutputStream fileOutputStream;
+        @Getter
+        private IOException clientException;
+
+        TeeOutputStream(OutputStream clientOutputStream, OutputStream fileOutputStream) {
+            this.clientOutputStream = clientOutputStream;
+            this.fileOutputStream = fileOutputStream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (isNull(clientException)) {
+                try {
+                    clientOutputStream.write(b);
+                } catch (IOException e) {
+                    clientException = e;
+                }
+            }
+            fileOutputStream.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (isNull(clientException)) {
+                try {
+                    clientOutputStream.write(bytes, offset, length);
+                } catch (IOException e) {
+                    clientException = e;
+                }
+            }
+            fileOutputStream.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (isNull(clientException)) {
+                try {
+                    clientOutputStream.flush();
+                } catch (IOException e) {
+                    clientException = e;
+                }
+            }
+            fileOutputStream.flush();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.service;
+
+import com.example.configuration.JobLogIngestionProperties;
+import com.example.domain.JobLogLevel;
+import com.example.entity.JobLog;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.quartz.JobKey;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+
+@Component
+@RequiredArgsConstructor
+public class JobLogIngestionPolicy {
+
+    private final JobLogIngestionProperties properties;
+    private final JobLogWriter jobLogWriter;
+    //entries are removed when their summary is written, so only jobs with drops since the last summary are kept
+    private final Map<JobKey, Long> droppedCounts = new ConcurrentHashMap<>();
+
+    private LoadingCache<JobKey, AtomicLong> infoCounters;
+    private LoadingCache<JobKey, RateLimiter> infoRateLimiters;
+
+    @PostConstruct
+    public void init() {
+        infoCounters = CacheBuilder.newBuilder()
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .build(CacheLoader.from(() -> new AtomicLong()));
+        infoRateLimiters = CacheBuilder.newBuilder()
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .build(CacheLoader.from(() -> RateLimiter.create(properties.getInfoRateLimitPerSecond())));
+    }
+
+    //WARN and ERROR entries are always accepted, only INFO entries of job executions are filtered
+    public boolean accept(JobKey jobKey, JobLogLevel logLevel) {
+        if (!properties.isEnabled() || logLevel != JobLogLevel.INFO) {
+            return true;
+        }
+        boolean isAccepted = isLevelAccepted(jobKey, logLevel) && isSampled(jobKey) && isRateAccepted(jobKey);
+        if (!isAccepted) {
+            droppedCounts.merge(jobKey, 1L, Long::sum);
+        }
+        return isAccepted;
+    }
+
+    @Scheduled(fixedDelayString = "${job.log.ingestion.summary-interval-ms:60000}")
+    public void writeDropSummaries() {
+        for (JobKey jobKey : droppedCounts.keySet()) {
+            //drops counted after the removal start a new entry and go to the next summary
+            Long count = droppedCounts.remove(jobKey);
+            if (isNull(count)) {
+                continue;
+            }
+            JobLog jobLog = JobLog.builder()
+                    .logLevel(JobLogLevel.INFO)
+                    .jobKey(jobKey)
+                    .message("Job log entries dropped by ingestion policy: {}", count)
+                    .build();
+            jobLogWriter.write(jobLog);
+        }
+    }
+
+    private boolean isLevelAccepted(JobKey jobKey, JobLogLevel logLevel) {
+        JobLogLevel minLevel = properties.getMinLevels().get(jobKey.getGroup());
+        return isNull(minLevel) || logLevel.compareTo(minLevel) >= 0;
+    }
+
+    private boolean isSampled(JobKey jobKey) {
+        int sampleRate = properties.getInfoSampleRate();
+        return sampleRate <= 1 || infoCounters.getUnchecked(jobKey).getAndIncrement() % sampleRate == 0;
+    }
+
+    private boolean isRateAccepted(JobKey jobKey) {
+        return properties.getInfoRateLimitPerSecond() <= 0 || infoRateLimiters.getUnchecked(jobKey).tryAcquire();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class JobLogPartitionService {
+
+    private static final String FUTURE_PARTITION_NAME = "p_future";
+    private static final String DAILY_PARTITION_PREFIX = "p";
+    private static final DateTimeFormatter DAILY_PARTITION_FORMATTER = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    private static final DateTimeFormatter PARTITION_BOUND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String FIND_PARTITION_NAMES =
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = 'atimis_logistic' AND TABLE_NAME = 'job_logs' AND PARTITION_NAME IS NOT NULL";
+    //upper bound of the partition which precedes p_future, i.e. lower bound of p_future
+    private static final String FIND_FUTURE_PARTITION_LOWER_BOUND =
+            "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = 'atimis_logistic' AND TABLE_NAME = 'job_logs' AND PARTITION_NAME IS NOT NULL " +
+            "AND PARTITION_NAME <> '" + FUTURE_PARTITION_NAME + "' ORDER BY PARTITION_ORDINAL_POSITION DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${job.log.partition.retention-days:30}")
+    private int retentionDays;
+    @Value("${job.log.partition.days-ahead:7}")
+    private int daysAhead;
+
+    public int createFuturePartitions() {
+        List<String> partitionNames = getPartitionNames();
+        if (!partitionNames.contains(FUTURE_PARTITION_NAME)) {
+            log.warn("Table job_logs has no {} partition, future partitions are not created", FUTURE_PARTITION_NAME);
+            return 0;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        //new daily partitions can be split only from the start of p_future, partition of the first new date ends
+        //on the next day, so its bound is strictly greater than the bound of p_history or the latest daily partition
+        LocalDate firstNewPartitionDate = getFuturePartitionLowerBound().orElse(today);
+        LocalDate lastNewPartitionDate = today.plusDays(daysAhead);
+        if (firstNewPartitionDate.isAfter(lastNewPartitionDate)) {
+            return 0;
+        }
+
+        StringBuilder partitions = new StringBuilder();
+        int createdCount = 0;
+        for (LocalDate date = firstNewPartitionDate; !date.isAfter(lastNewPartitionDate); date = date.plusDays(1)) {
+            partitions.append("PARTITION ").append(date.format(DAILY_PARTITION_FORMATTER))
+                    .append(" VALUES LESS THAN ('").append(date.plusDays(1)).append(" 00:00:00'), ");
+            createdCount++;
+        }
+        jdbcTemplate.execute("ALTER TABLE atimis_logistic.job_logs REORGANIZE PARTITION " + FUTURE_PARTITION_NAME +
+                " INTO (" + partitions + "PARTITION " + FUTURE_PARTITION_NAME + " VALUES LESS THAN (MAXVALUE))");
+        return createdCount;
+    }
+
+    public int dropExpiredPartitions() {
+        LocalDate oldestRetainedDate = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays);
+        List<String> expiredPartitionNames = getDailyPartitionDates(getPartitionNames()).stream()
+                .filter(date -> date.isBefore(oldestRetainedDate))
+                .map(date -> date.format(DAILY_PARTITION_FORMATTER))
+                .collect(Collectors.toList());
+        if (expiredPartitionNames.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.execute("ALTER TABLE atimis_logistic.job_logs DROP PARTITION " +
+                String.join(", ", expiredPartitionNames));
+        return expiredPartitionNames.size();
+    }
+
+    private Optional<LocalDate> getFuturePartitionLowerBound() {
+        return jdbcTemplate.queryForList(FIND_FUTURE_PARTITION_LOWER_BOUND, String.class).stream()
+                .findFirst()
+                .map(bound -> LocalDateTime.parse(bound.replace("'", ""), PARTITION_BOUND_FORMATTER).toLocalDate());
+    }
+
+    private List<String> getPartitionNames() {
+        return jdbcTemplate.queryForList(FIND_PARTITION_NAMES, String.class);
+    }
+
+    private static List<LocalDate> getDailyPartitionDates(List<String> partitionNames) {
+        return partitionNames.stream()
+                .filter(partitionName -> partitionName.startsWith(DAILY_PARTITION_PREFIX))
+                .map(JobLogPartitionService::parseDailyPartitionDate)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    private static Optional<LocalDate> parseDailyPartitionDate(String partitionName) {
+        try {
+            return Optional.of(LocalDate.parse(partitionName, DAILY_PARTITION_FORMATTER));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,75 +1,135 @@
 package com.example.service;
 
+import com.example.domain.JobLogCriteria;
 import com.example.domain.JobLogDto;
 import com.example.domain.JobLogLevel;
+import com.example.domain.JobLogMessageMatchMode;
+import com.example.domain.JobLogPage;
 import com.example.domain.JobLogParameters;
 import com.example.entity.JobLog;
-import com.example.repository.JobLogRepository;
+import com.example.exception.ValidationException;
+import com.example.repository.JobLogJdbcRepository;
 import com.example.util.JobLogUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import static java.util.Collections.emptyList;
 import static java.util.Objects.nonNull;
 
 @Service
 @RequiredArgsConstructor
 public class JobLogService {
 
-    private final JobLogRepository jobLogRepository;
+    private final JobLogJdbcRepository jobLogJdbcRepository;
+    private final JobLogWriter jobLogWriter;
+    private final JobLogIngestionPolicy jobLogIngestionPolicy;
+    private final ObjectMapper objectMapper;
 
-    public void log(@NonNull JobExecutionContext context, @NonNull JobLogLevel logLevel, @NonNull String message) {
+    @Value("${job.log.find.default-page-size:100}")
+    private int defaultPageSize;
+    @Value("${job.log.find.max-page-size:1000}")
+    private int maxPageSize;
+    @Value("${job.log.partition.enabled:false}")
+    private boolean isPartitioningEnabled;
+
+    public void log(@NonNull JobExecutionContext context, @NonNull JobLogLevel logLevel, @NonNull String messageTemplate,
+                    Object... messageArguments) {
+        if (!jobLogIngestionPolicy.accept(context.getJobDetail().getKey(), logLevel)) {
+            return;
+        }
+        JobLog jobLog = JobLog.builder()
+                .logLevel(logLevel)
+                .jobKey(context.getJobDetail().getKey())
+                .triggerKey(context.getTrigger().getKey())
+                .message(messageTemplate, messageArguments)
+                .build();
+        jobLogWriter.write(jobLog);
+    }
+
+    //writes entry synchronously in the current transaction, so it is committed together with job business writes
+    public void logInTransaction(@NonNull JobExecutionContext context, @NonNull JobLogLevel logLevel,
+                                 @NonNull String messageTemplate, Object... messageArguments) {
+        if (!jobLogIngestionPolicy.accept(context.getJobDetail().getKey(), logLevel)) {
+            return;
+        }
         JobLog jobLog = JobLog.builder()
                 .logLevel(logLevel)
-                .jobKey(context.getJobDetail().getKey().toString())
-                .triggerKey(context.getTrigger().getKey().toString())
-                .errorMessage(message)
+                .jobKey(context.getJobDetail().getKey())
+                .triggerKey(context.getTrigger().getKey())
+                .message(messageTemplate, messageArguments)
                 .build();
-        jobLogRepository.save(jobLog);
+        jobLogWriter.writeInTransaction(jobLog);
     }
 
     public void log(@NonNull JobLog jobLog) {
-        jobLogRepository.save(jobLog);
+        jobLogWriter.write(jobLog);
     }
 
-    public void log(@NonNull JobLogLevel logLevel, @NonNull String message) {
+    public void log(@NonNull JobLogLevel logLevel, @NonNull String messageTemplate,
+                    Object... messageArguments) {
         JobLog jobLog = JobLog.builder()
                 .logLevel(logLevel)
-                .errorMessage(message)
+                .message(messageTemplate, messageArguments)
                 .build();
-        jobLogRepository.save(jobLog);
+        jobLogWriter.write(jobLog);
     }
 
-    public void log(@NonNull JobLogLevel logLevel, @NonNull String jobKey, @NonNull String triggerKey, @NonNull String message) {
+    public void log(@NonNull JobLogLevel logLevel, @NonNull JobKey jobKey, @NonNull TriggerKey triggerKey, @NonNull String messageTemplate,
+                    Object... messageArguments) {
         JobLog jobLog = JobLog.builder()
                 .logLevel(logLevel)
                 .jobKey(jobKey)
                 .triggerKey(triggerKey)
-                .errorMessage(message)
+                .message(messageTemplate, messageArguments)
                 .build();
-        jobLogRepository.save(jobLog);
+        jobLogWriter.write(jobLog);
     }
 
-    public List<JobLogDto> getLogsByParameters(JobLogParameters parameters) {
-        JobLogUtils.validateJobLogParameters(parameters);
-        List<JobLog> jobLogs = jobLogRepository.findAllByParameters(
-                parameters.getId(),
-                nonNull(parameters.getStartDate()) ? LocalDateTime.parse(parameters.getStartDate()) : null,
-                nonNull(parameters.getEndDate()) ? LocalDateTime.parse(parameters.getEndDate()) : null,
-                nonNull(parameters.getJobLogLevel()) ? JobLogLevel.valueOf(parameters.getJobLogLevel()) : null,
-                parameters.getJobKey(),
-                parameters.getTriggerKey(),
-                parameters.getErrorMessage());
+    public JobLogPage getLogsByParameters(JobLogParameters parameters) {
+        validateJobLogParameters(parameters);
+        int limit = nonNull(parameters.getLimit()) ? Math.min(parameters.getLimit(), maxPageSize) : defaultPageSize;
+        List<JobLogDto> jobLogDtoList = jobLogJdbcRepository.findAllByCriteria(
+                JobLogUtils.convertParametersToCriteria(parameters), limit);
+        return JobLogPage.builder()
+                .jobLogs(jobLogDtoList)
+                .nextCursor(jobLogDtoList.size() == limit
+                        ? JobLogUtils.encodeCursor(jobLogDtoList.get(jobLogDtoList.size() - 1)) : null)
+                .build();
+    }
 
-        return CollectionUtils.isEmpty(jobLogs)
-                ? emptyList()
-                : jobLogs.stream().map(JobLogUtils::convertJobLogToDto).collect(Collectors.toList());
+    public void streamLogsByParameters(JobLogParameters parameters, OutputStream outputStream) throws IOException {
+        validateJobLogParameters(parameters);
+        JobLogCriteria criteria = JobLogUtils.convertParametersToCriteria(parameters);
+        try (JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(outputStream)) {
+            jsonGenerator.setRootValueSeparator(null);
+            jobLogJdbcRepository.streamAllByCriteria(criteria, jobLogDto -> {
+                try {
+                    jsonGenerator.writeObject(jobLogDto);
+                    jsonGenerator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    public void validateJobLogParameters(JobLogParameters parameters) {
+        JobLogUtils.validateJobLogParameters(parameters);
+        boolean isFullTextSearch = JobLogMessageMatchMode.FULL_TEXT.name().equals(parameters.getMessageMatchMode());
+        if (isPartitioningEnabled && isFullTextSearch) {
+            throw new ValidationException("Value \"messageMatchMode\" is specified incorrectly, " +
+                    "full text search is not available for partitioned job logs");
+        }
     }
 }
@@ -0,0 +1,310 @@
+package com.example.service;
+
+import com.example.domain.JobLogLevel;
+import com.example.entity.JobLog;
+import com.example.util.JobLogUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Append-only store of job log entries, which could not be written to the database.
+ * Entries are appended to memory-mapped segment files as records prefixed with length and CRC32 checksum,
+ * zero length marks the end of written records in a segment. Segments start with a negative magic number.
+ * Records, which can not be inserted because of their data or fail their checksum, are moved to the quarantine file,
+ * segments with a damaged record header are kept under the corrupt suffix.
+ */
+@Log4j2
+@Component
+public class JobLogSpool {
+
+    private static final String SEGMENT_PREFIX = "job-logs-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CORRUPT_SEGMENT_SUFFIX = ".corrupt";
+    private static final String QUARANTINE_FILE_NAME = "quarantine-job-logs.spool";
+    private static final int NULL_STRING_LENGTH = -1;
+    private static final int SEGMENT_MAGIC = 0xCAFE0002;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final AtomicLong segmentSequence = new AtomicLong();
+    private final Map<Path, Integer> replayedOffsets = new ConcurrentHashMap<>();
+
+    @Value("${job.log.spool.directory:spool}")
+    private String directory;
+    @Value("${job.log.spool.segment-size-bytes:67108864}")
+    private int segmentSizeBytes;
+
+    private Path directoryPath;
+    private Path currentSegmentPath;
+    private MappedByteBuffer currentSegment;
+
+    @PostConstruct
+    public void init() throws IOException {
+        directoryPath = Files.createDirectories(Paths.get(directory));
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        sealCurrentSegment();
+    }
+
+    public synchronized void append(List<JobLog> jobLogs) {
+        for (JobLog jobLog : jobLogs) {
+            byte[] record = serialize(jobLog);
+            //record header, record and zero length end marker must fit the segment after the magic number
+            if (record.length + RECORD_HEADER_SIZE + 2 * Integer.BYTES > segmentSizeBytes) {
+                log.error("Job log entry of {} bytes does not fit spool segment and is lost", record.length);
+                continue;
+            }
+            if (isNull(currentSegment) || currentSegment.remaining() < record.length + RECORD_HEADER_SIZE + Integer.BYTES) {
+                sealCurrentSegment();
+                openSegment();
+            }
+            currentSegment.putInt(record.length);
+            currentSegment.putInt(checksum(record));
+            currentSegment.put(record);
+        }
+    }
+
+    //quarantined records are kept for manual inspection and are never replayed automatically
+    public void quarantine(JobLog jobLog) {
+        byte[] record = serialize(jobLog);
+        quarantine(record, checksum(record));
+    }
+
+    //record is kept with its stored checksum, so records which failed the check are recognizable on inspection
+    private synchronized void quarantine(byte[] record, int recordChecksum) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + record.length)
+                .putInt(record.length)
+                .putInt(recordChecksum)
+                .put(record);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(directoryPath.resolve(QUARANTINE_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized List<Path> sealSegments() {
+        if (nonNull(currentSegment) && currentSegment.position() > Integer.BYTES) {
+            sealCurrentSegment();
+        }
+        try (Stream<Path> paths = Files.list(directoryPath)) {
+            return paths
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .filter(path -> !path.equals(currentSegmentPath))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    //consumer may throw, in this case replay is continued from the failed chunk on the next call.
+    //records failing their checksum or deserialization are skipped by their length and quarantined with the chunk,
+    //record with a damaged length ends replay and the segment is kept under the corrupt suffix
+    public void replay(Path segmentPath, int chunkSize, Consumer<List<JobLog>> consumer) throws IOException {
+        ByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (segment.remaining() < Integer.BYTES || segment.getInt(0) != SEGMENT_MAGIC) {
+            log.error("Job log spool segment {} has no valid header, segment is kept as corrupt",
+                    segmentPath.getFileName());
+            keepCorruptSegment(segmentPath);
+            return;
+        }
+        segment.position(replayedOffsets.getOrDefault(segmentPath, Integer.BYTES));
+        List<JobLog> chunk = new ArrayList<>(chunkSize);
+        List<SkippedRecord> skippedRecords = new ArrayList<>();
+        boolean isCorrupt = false;
+        while (segment.remaining() >= Integer.BYTES) {
+            int recordOffset = segment.position();
+            int recordLength = segment.getInt();
+            if (recordLength == 0) {
+                break;
+            }
+            if (recordLength < 0 || recordLength > segment.remaining() - Integer.BYTES) {
+                log.error("Job log spool segment {} has damaged record length at offset {}, segment is kept as corrupt",
+                        segmentPath.getFileName(), recordOffset);
+                isCorrupt = true;
+                break;
+            }
+            int recordChecksum = segment.getInt();
+            byte[] record = new byte[recordLength];
+            segment.get(record);
+            JobLog jobLog = readRecord(record, recordChecksum, segmentPath, recordOffset);
+            if (isNull(jobLog)) {
+                skippedRecords.add(new SkippedRecord(record, recordChecksum));
+                continue;
+            }
+            chunk.add(jobLog);
+            if (chunk.size() == chunkSize) {
+                consumer.accept(chunk);
+                quarantineSkippedRecords(skippedRecords);
+                replayedOffsets.put(segmentPath, segment.position());
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+        quarantineSkippedRecords(skippedRecords);
+        replayedOffsets.remove(segmentPath);
+        if (isCorrupt) {
+            keepCorruptSegment(segmentPath);
+        } else {
+            Files.delete(segmentPath);
+        }
+    }
+
+    //null when record is corrupted or unreadable
+    private static JobLog readRecord(byte[] record, int recordChecksum, Path segmentPath, int recordOffset) {
+        if (checksum(record) != recordChecksum) {
+            log.warn("Job log spool segment {} has corrupted record at offset {}, record is moved to quarantine",
+                    segmentPath.getFileName(), recordOffset);
+            return null;
+        }
+        try {
+            return deserialize(record);
+        } catch (RuntimeException e) {
+            log.warn("Job log spool segment {} has unreadable record at offset {}, record is moved to quarantine. " +
+                    "Message: {}", segmentPath.getFileName(), recordOffset, e.getMessage());
+            return null;
+        }
+    }
+
+    private void quarantineSkippedRecords(List<SkippedRecord> skippedRecords) {
+        for (SkippedRecord skippedRecord : skippedRecords) {
+            quarantine(skippedRecord.record, skippedRecord.checksum);
+        }
+        skippedRecords.clear();
+    }
+
+    private static void keepCorruptSegment(Path segmentPath) throws IOException {
+        Files.move(segmentPath, segmentPath.resolveSibling(segmentPath.getFileName() + CORRUPT_SEGMENT_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(record);
+        return (int) crc32.getValue();
+    }
+
+    private void openSegment() {
+        currentSegmentPath = directoryPath.resolve(String.format("%s%020d-%06d%s", SEGMENT_PREFIX,
+                System.currentTimeMillis(), segmentSequence.incrementAndGet(), SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(currentSegmentPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            currentSegment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes);
+            currentSegment.putInt(SEGMENT_MAGIC);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sealCurrentSegment() {
+        if (isNull(currentSegment)) {
+            return;
+        }
+        currentSegment.force();
+        currentSegment = null;
+        currentSegmentPath = null;
+    }
+
+    private static byte[] serialize(JobLog jobLog) {
+        List<byte[]> strings = Stream.of(jobLog.getLogLevel().name(), jobLog.getJobKey(), jobLog.getJobGroup(),
+                jobLog.getJobName(), jobLog.getTriggerKey(), jobLog.getTriggerGroup(), jobLog.getTriggerName(),
+                jobLog.getErrorMessage(), jobLog.getMessageTemplate(),
+                nonNull(jobLog.getMessageTemplate())
+                        ? JobLogUtils.encodeMessageParameters(jobLog.getMessageArguments()) : null)
+                .map(value -> isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+        int length = Long.BYTES + Integer.BYTES + strings.stream()
+                .mapToInt(bytes -> Integer.BYTES + (isNull(bytes) ? 0 : bytes.length))
+                .sum();
+        ByteBuffer buffer = ByteBuffer.allocate(length)
+                .putLong(jobLog.getDate().toEpochSecond(ZoneOffset.UTC))
+                .putInt(jobLog.getDate().getNano());
+        for (byte[] bytes : strings) {
+            buffer.putInt(isNull(bytes) ? NULL_STRING_LENGTH : bytes.length);
+            if (nonNull(bytes)) {
+                buffer.put(bytes);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static JobLog deserialize(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        LocalDateTime date = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        JobLog jobLog = JobLog.builder()
+                .date(date)
+                .logLevel(JobLogLevel.valueOf(readString(buffer)))
+                .jobKey(readString(buffer))
+                .jobGroup(readString(buffer))
+                .jobName(readString(buffer))
+                .triggerKey(readString(buffer))
+                .triggerGroup(readString(buffer))
+                .triggerName(readString(buffer))
+                .errorMessage(readString(buffer))
+                .messageTemplate(readString(buffer))
+                .build();
+        if (nonNull(jobLog.getMessageTemplate())) {
+            jobLog.setMessageArguments(JobLogUtils.decodeMessageParameters(readString(buffer)));
+        }
+        return jobLog;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_STRING_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @RequiredArgsConstructor
+    private static class SkippedRecord {
+
+        private final byte[] record;
+        private final int checksum;
+    }
+}
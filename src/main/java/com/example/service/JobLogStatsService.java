@@ -0,0 +1,76 @@
+package com.example.service;
+
+import com.example.domain.JobLogLevel;
+import com.example.domain.JobLogStatsDto;
+import com.example.domain.JobLogStatsKey;
+import com.example.domain.JobLogStatsParameters;
+import com.example.domain.JobLogStatsResolution;
+import com.example.entity.JobLog;
+import com.example.repository.JobLogStatsRepository;
+import com.example.util.JobLogUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.nonNull;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class JobLogStatsService {
+
+    private final JobLogStatsRepository jobLogStatsRepository;
+    private final Map<JobLogStatsKey, Long> pendingCounts = new ConcurrentHashMap<>();
+
+    public void record(List<JobLog> jobLogs) {
+        for (JobLog jobLog : jobLogs) {
+            JobLogStatsKey statsKey = new JobLogStatsKey(jobLog.getDate().truncatedTo(ChronoUnit.MINUTES),
+                    jobLog.getJobKey(), jobLog.getTriggerKey(), jobLog.getLogLevel());
+            pendingCounts.merge(statsKey, 1L, Long::sum);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${job.log.stats.flush-interval-ms:10000}")
+    public void flush() {
+        List<Map.Entry<JobLogStatsKey, Long>> counts = new ArrayList<>();
+        for (JobLogStatsKey statsKey : pendingCounts.keySet()) {
+            //removing entry by entry keeps counts added concurrently for the next flush
+            Long count = pendingCounts.remove(statsKey);
+            if (nonNull(count)) {
+                counts.add(new AbstractMap.SimpleEntry<>(statsKey, count));
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+        try {
+            jobLogStatsRepository.addCounts(counts);
+        } catch (Exception e) {
+            log.error("Error while flushing job log stats. Message: {}", e.getMessage());
+            counts.forEach(entry -> pendingCounts.merge(entry.getKey(), entry.getValue(), Long::sum));
+        }
+    }
+
+    public List<JobLogStatsDto> getStatsByParameters(JobLogStatsParameters parameters) {
+        JobLogUtils.validateJobLogStatsParameters(parameters);
+        return jobLogStatsRepository.findAllByParameters(
+                LocalDateTime.parse(parameters.getStartDate()),
+                LocalDateTime.parse(parameters.getEndDate()),
+                nonNull(parameters.getJobLogLevel()) ? JobLogLevel.valueOf(parameters.getJobLogLevel()) : null,
+                parameters.getJobKey(),
+                parameters.getTriggerKey(),
+                nonNull(parameters.getResolution())
+                        ? JobLogStatsResolution.valueOf(parameters.getResolution()) : JobLogStatsResolution.MINUTE);
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.service;
+
+import com.example.domain.JobLogOverflowPolicy;
+import com.example.entity.JobLog;
+import com.example.repository.JobLogTemplateRepository;
+import com.example.util.JobLogUtils;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class JobLogWriter {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO atimis_logistic.job_logs (date, log_level, job_key, job_group, job_name, " +
+            "trigger_key, trigger_group, trigger_name, error_message, template_id, message_parameters) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int INSERT_COLUMN_COUNT = 11;
+    private static final int MAX_MESSAGE_PARAMETERS_LENGTH = 2000;
+    private static final long DROP_WARNING_INTERVAL_MS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLogStatsService jobLogStatsService;
+    private final JobLogSpool jobLogSpool;
+    private final JobLogTemplateRepository jobLogTemplateRepository;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong lastDropWarningTime = new AtomicLong();
+
+    @Value("${job.log.writer.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${job.log.writer.flush-size:500}")
+    private int flushSize;
+    @Value("${job.log.writer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    @Value("${job.log.writer.overflow-policy:SPOOL}")
+    private JobLogOverflowPolicy overflowPolicy;
+    @Value("${job.log.spool.enabled:true}")
+    private boolean isSpoolEnabled;
+
+    private BlockingQueue<JobLog> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::drainQueue, "job-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        //entries enqueued after the last drain of writer thread
+        flushQueue();
+    }
+
+    public void write(@NonNull JobLog jobLog) {
+        if (isNull(jobLog.getDate())) {
+            jobLog.setDate(LocalDateTime.now());
+        }
+        if (!running) {
+            flush(new ArrayList<>(Collections.singletonList(jobLog)));
+            return;
+        }
+        if (overflowPolicy == JobLogOverflowPolicy.BLOCK) {
+            try {
+                queue.put(jobLog);
+                flushQueueIfStopped();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for job log queue, writing log entry directly");
+                flush(new ArrayList<>(Collections.singletonList(jobLog)));
+            }
+            return;
+        }
+        if (queue.offer(jobLog)) {
+            flushQueueIfStopped();
+            return;
+        }
+        if (overflowPolicy == JobLogOverflowPolicy.SPOOL && isSpoolEnabled) {
+            spool(Collections.singletonList(jobLog));
+            return;
+        }
+        long dropped = droppedCount.incrementAndGet();
+        long now = System.currentTimeMillis();
+        long lastWarningTime = lastDropWarningTime.get();
+        if (now - lastWarningTime >= DROP_WARNING_INTERVAL_MS
+                && lastDropWarningTime.compareAndSet(lastWarningTime, now)) {
+            log.warn("Job log queue is full, log entries are dropped. Dropped so far: {}", dropped);
+        }
+    }
+
+    //stop may have drained the queue between the running check and the enqueue, so the entry is written by the caller
+    private void flushQueueIfStopped() {
+        if (!running) {
+            flushQueue();
+        }
+    }
+
+    private void flushQueue() {
+        List<JobLog> batch = new ArrayList<>(flushSize);
+        while (queue.drainTo(batch, flushSize) > 0) {
+            flush(batch);
+        }
+    }
+
+    //entry is inserted on the connection of the current transaction, so it is committed or rolled back with job writes
+    public void writeInTransaction(@NonNull JobLog jobLog) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Job log entry can be written in transaction only when transaction is active");
+        }
+        if (isNull(jobLog.getDate())) {
+            jobLog.setDate(LocalDateTime.now());
+        }
+        List<JobLog> jobLogs = Collections.singletonList(jobLog);
+        insertRows(jobLogs);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                jobLogStatsService.record(jobLogs);
+            }
+        });
+    }
+
+    //spooled entries are replayed only when database accepts writes again, failed chunk is retried on the next run
+    @Scheduled(fixedDelayString = "${job.log.spool.replay-interval-ms:30000}")
+    public void replaySpool() {
+        if (!isSpoolEnabled) {
+            return;
+        }
+        for (Path segmentPath : jobLogSpool.sealSegments()) {
+            try {
+                jobLogSpool.replay(segmentPath, flushSize, this::replayChunk);
+                log.info("Job log spool segment {} successfully replayed", segmentPath.getFileName());
+            } catch (Exception e) {
+                log.warn("Error while replaying job log spool segment {}. Message: {}",
+                        segmentPath.getFileName(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    //chunk rejected because of its data is split until the bad entry is found and moved to quarantine,
+    //other errors, e.g. connection or lock timeouts, stop replay until the next run
+    private void replayChunk(List<JobLog> jobLogs) {
+        try {
+            insert(jobLogs);
+        } catch (DataIntegrityViolationException e) {
+            if (jobLogs.size() == 1) {
+                log.error("Job log entry is rejected by database and moved to quarantine. Message: {}", e.getMessage());
+                jobLogSpool.quarantine(jobLogs.get(0));
+                return;
+            }
+            int middle = jobLogs.size() / 2;
+            replayChunk(jobLogs.subList(0, middle));
+            replayChunk(jobLogs.subList(middle, jobLogs.size()));
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void drainQueue() {
+        List<JobLog> batch = new ArrayList<>(flushSize);
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                break;
+            }
+            flush(batch);
+        }
+        while (!queue.isEmpty()) {
+            queue.drainTo(batch, flushSize - batch.size());
+            flush(batch);
+        }
+        flush(batch);
+    }
+
+    private void collectBatch(List<JobLog> batch) throws InterruptedException {
+        JobLog first = queue.take();
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < flushSize) {
+            queue.drainTo(batch, flushSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= flushSize || remaining <= 0) {
+                return;
+            }
+            JobLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (nonNull(next)) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void flush(List<JobLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+        } catch (Exception e) {
+            log.error("Error while writing {} job log entries. Message: {}", batch.size(), e.getMessage());
+            if (isSpoolEnabled) {
+                spool(batch);
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void spool(List<JobLog> jobLogs) {
+        try {
+            jobLogSpool.append(jobLogs);
+        } catch (Exception e) {
+            log.error("Error while spooling {} job log entries, entries are lost. Message: {}",
+                    jobLogs.size(), e.getMessage());
+        }
+    }
+
+    private void insert(List<JobLog> jobLogs) {
+        insertRows(jobLogs);
+        jobLogStatsService.record(jobLogs);
+    }
+
+    private void insertRows(List<JobLog> jobLogs) {
+        jobLogs.forEach(this::applyTemplate);
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < jobLogs.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(INSERT_ROW);
+        }
+        jdbcTemplate.update(sql.toString(), preparedStatement -> {
+            for (int i = 0; i < jobLogs.size(); i++) {
+                setValues(preparedStatement, i * INSERT_COLUMN_COUNT, jobLogs.get(i));
+            }
+        });
+    }
+
+    private void setValues(PreparedStatement preparedStatement, int offset, JobLog jobLog) throws SQLException {
+        preparedStatement.setTimestamp(offset + 1, Timestamp.valueOf(jobLog.getDate()), JobLogUtils.utcCalendar());
+        preparedStatement.setString(offset + 2, jobLog.getLogLevel().name());
+        preparedStatement.setString(offset + 3, jobLog.getJobKey());
+        preparedStatement.setString(offset + 4, jobLog.getJobGroup());
+        preparedStatement.setString(offset + 5, jobLog.getJobName());
+        preparedStatement.setString(offset + 6, jobLog.getTriggerKey());
+        preparedStatement.setString(offset + 7, jobLog.getTriggerGroup());
+        preparedStatement.setString(offset + 8, jobLog.getTriggerName());
+        preparedStatement.setString(offset + 9, isNull(jobLog.getTemplateId()) ? jobLog.getErrorMessage() : null);
+        preparedStatement.setObject(offset + 10, jobLog.getTemplateId(), Types.INTEGER);
+        preparedStatement.setString(offset + 11, jobLog.getMessageParameters());
+    }
+
+    //messages which do not fit template dictionary or parameters column are stored as formatted text
+    private void applyTemplate(JobLog jobLog) {
+        if (isNull(jobLog.getMessageTemplate()) || nonNull(jobLog.getTemplateId())
+                || jobLog.getMessageTemplate().length() > JobLogTemplateRepository.MAX_TEMPLATE_LENGTH) {
+            return;
+        }
+        String messageParameters = JobLogUtils.encodeMessageParameters(jobLog.getMessageArguments());
+        if (nonNull(messageParameters) && messageParameters.length() > MAX_MESSAGE_PARAMETERS_LENGTH) {
+            return;
+        }
+        jobLog.setTemplateId(jobLogTemplateRepository.getTemplateId(jobLog.getMessageTemplate()));
+        jobLog.setMessageParameters(messageParameters);
+    }
+}
@@ -1,29 +1,31 @@
 package com.example.service;
 
 import com.example.domain.JobExecutionDetails;
+import com.example.domain.JobExecutionDetailsPage;
+import com.example.domain.JobExecutionDetailsParameters;
 import com.example.domain.JobLogLevel;
 import com.example.domain.TriggerDto;
+import com.example.domain.TriggerSpec;
 import com.example.entity.JobLog;
 import com.example.exception.JobDetailNotFoundException;
 import com.example.exception.TriggerNotFoundException;
 import com.example.exception.ValidationException;
+import com.example.repository.SchedulerJdbcRepository;
+import com.example.util.JobExecutionDetailsUtils;
 import com.example.util.TriggerUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.quartz.*;
-import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
-import java.time.ZoneId;
-import java.util.AbstractMap;
+import java.util.Date;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 @Log4j2
@@ -33,27 +35,40 @@ public class JobService {
 
     private final Scheduler scheduler;
     private final JobLogService jobLogService;
+    private final SchedulerStateService schedulerStateService;
+    private final SchedulerJdbcRepository schedulerJdbcRepository;
+    private final TriggerSmoothingService triggerSmoothingService;
+
+    @Value("${job.info.default-page-size:100}")
+    private int defaultPageSize;
+    @Value("${job.info.max-page-size:1000}")
+    private int maxPageSize;
 
     public boolean scheduleJob(TriggerDto triggerDto) {
         try {
             checkJobDetailExists(triggerDto.getJobId(), triggerDto.getJobGroupName());
-            TriggerUtils.validateTriggerDto(triggerDto);
-            Trigger trigger = TriggerUtils.convertDtoToTrigger(triggerDto);
-            scheduler.scheduleJob(trigger);
+            TriggerSpec triggerSpec = triggerSmoothingService.smooth(TriggerUtils.compileTriggerDto(triggerDto));
+            Trigger trigger = TriggerUtils.convertSpecToTrigger(triggerSpec);
+            try {
+                scheduler.scheduleJob(trigger);
+            } catch (SchedulerException | RuntimeException e) {
+                triggerSmoothingService.cancel(triggerSpec);
+                throw e;
+            }
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(trigger.getKey().toString())
-                    .triggerKey(trigger.getKey().toString())
-                    .errorMessage("Job successfully scheduled")
+                    .jobKey(trigger.getJobKey())
+                    .triggerKey(trigger.getKey())
+                    .message("Job successfully scheduled")
                     .build();
             jobLogService.log(jobLog);
             return true;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(new JobKey(triggerDto.getJobId(), triggerDto.getJobGroupName()).toString())
-                    .triggerKey(new TriggerKey(triggerDto.getTriggerId(), triggerDto.getTriggerGroupName()).toString())
-                    .errorMessage("Error while scheduling job. Message: " + e.getMessage())
+                    .jobKey(new JobKey(triggerDto.getJobId(), triggerDto.getJobGroupName()))
+                    .triggerKey(new TriggerKey(triggerDto.getTriggerId(), triggerDto.getTriggerGroupName()))
+                    .message("Error while scheduling job. Message: {}", e.getMessage())
                     .build();
             log.error("Error while scheduling job. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -65,29 +80,28 @@ public class JobService {
     public boolean stopScheduledJob(String triggerId, String triggerGroupName) {
         JobKey jobKey;
         try {
-            checkTriggerExists(triggerId, triggerGroupName);
-            jobKey = getJobKeyForTriggerKey(new TriggerKey(triggerId, triggerGroupName));
+            jobKey = getExistingTrigger(triggerId, triggerGroupName).getJobKey();
         } catch (SchedulerException e) {
             log.warn("Error while getting details for scheduled jobs. Message: {}", e.getMessage());
-            jobLogService.log(JobLogLevel.WARN, "Error while getting details for scheduled jobs. Message: " + e.getMessage());
+            jobLogService.log(JobLogLevel.WARN, "Error while getting details for scheduled jobs. Message: {}", e.getMessage());
             return false;
         }
         try {
             boolean isJobStopped = scheduler.unscheduleJob(new TriggerKey(triggerId, triggerGroupName));
             JobLog jobLog = JobLog.builder()
                     .logLevel(isJobStopped ? JobLogLevel.INFO : JobLogLevel.WARN)
-                    .triggerKey(new TriggerKey(triggerId, triggerGroupName).toString())
-                    .jobKey(jobKey.toString())
-                    .errorMessage(isJobStopped ? "Job successfully stopped" : "Job stopping failed")
+                    .triggerKey(new TriggerKey(triggerId, triggerGroupName))
+                    .jobKey(jobKey)
+                    .message(isJobStopped ? "Job successfully stopped" : "Job stopping failed")
                     .build();
             jobLogService.log(jobLog);
             return isJobStopped;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(jobKey.toString())
-                    .triggerKey(new TriggerKey(triggerId, triggerGroupName).toString())
-                    .errorMessage("Error while stopping job. Message: " + e.getMessage())
+                    .jobKey(jobKey)
+                    .triggerKey(new TriggerKey(triggerId, triggerGroupName))
+                    .message("Error while stopping job. Message: {}", e.getMessage())
                     .build();
             log.error("Error while stopping job. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -97,25 +111,39 @@ public class JobService {
 
     public boolean updateScheduledJob(String triggerId, String triggerGroupName, TriggerDto triggerDto) {
         try {
-            checkTriggerExists(triggerId, triggerGroupName);
-            checkNewTriggerJobKey(triggerId, triggerGroupName, triggerDto);
-            TriggerUtils.validateTriggerDto(triggerDto);
-            Trigger newTrigger = TriggerUtils.convertDtoToTrigger(triggerDto);
-            scheduler.rescheduleJob(new TriggerKey(triggerId, triggerGroupName), newTrigger);
+            TriggerSpec triggerSpec = TriggerUtils.compileTriggerDto(triggerDto);
+            Trigger existingTrigger = getExistingTrigger(triggerId, triggerGroupName);
+            checkNewTriggerJobKey(existingTrigger, triggerSpec);
+            TriggerSpec smoothedTriggerSpec = triggerSmoothingService.smooth(triggerSpec);
+            Trigger newTrigger = TriggerUtils.convertSpecToTrigger(smoothedTriggerSpec);
+            //job store checks trigger existence and job key again under the trigger lock in the same transaction
+            Date firstFireTime;
+            try {
+                firstFireTime = scheduler.rescheduleJob(new TriggerKey(triggerId, triggerGroupName), newTrigger);
+            } catch (SchedulerException | RuntimeException e) {
+                triggerSmoothingService.cancel(smoothedTriggerSpec);
+                throw e;
+            }
+            if (isNull(firstFireTime)) {
+                triggerSmoothingService.cancel(smoothedTriggerSpec);
+                throw new TriggerNotFoundException(
+                        "Trigger with such triggerId: " + triggerId + " and triggerGroupName: " + triggerGroupName + " is not found");
+            }
+            triggerSmoothingService.replace(existingTrigger);
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(newTrigger.getJobKey().toString())
-                    .triggerKey(newTrigger.getKey().toString())
-                    .errorMessage("Job successfully rescheduled")
+                    .jobKey(newTrigger.getJobKey())
+                    .triggerKey(newTrigger.getKey())
+                    .message("Job successfully rescheduled")
                     .build();
             jobLogService.log(jobLog);
             return true;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(new JobKey(triggerDto.getJobId(), triggerDto.getJobGroupName()).toString())
-                    .triggerKey(new TriggerKey(triggerId, triggerGroupName).toString())
-                    .errorMessage("Error while rescheduling job. Message: " + e.getMessage())
+                    .jobKey(new JobKey(triggerDto.getJobId(), triggerDto.getJobGroupName()))
+                    .triggerKey(new TriggerKey(triggerId, triggerGroupName))
+                    .message("Error while rescheduling job. Message: {}", e.getMessage())
                     .build();
             log.error("Error while rescheduling job. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -123,60 +151,21 @@ public class JobService {
         }
     }
 
-    public List<JobExecutionDetails> getScheduledJobs() {
-        Set<Trigger> triggers = null;
+    public JobExecutionDetailsPage getScheduledJobs(JobExecutionDetailsParameters parameters) {
+        JobExecutionDetailsUtils.validateJobExecutionDetailsParameters(parameters);
+        int limit = nonNull(parameters.getLimit()) ? Math.min(parameters.getLimit(), maxPageSize) : defaultPageSize;
+        List<JobExecutionDetails> jobExecutionDetailsList = emptyList();
         try {
-            triggers = getAllTriggers();
-        } catch (SchedulerException e) {
+            jobExecutionDetailsList = schedulerJdbcRepository.findJobExecutionDetails(scheduler.getSchedulerName(),
+                    JobExecutionDetailsUtils.convertParametersToCriteria(parameters), limit);
+        } catch (SchedulerException | DataAccessException e) {
             log.warn("Error while getting info about scheduled jobs. Message: {}", e.getMessage());
-            jobLogService.log(JobLogLevel.WARN, "Error while getting info about scheduled jobs. Message: " + e.getMessage());
-        }
-        return CollectionUtils.isEmpty(triggers)
-                ? emptyList()
-                : getJobExecutionDetailsMap(triggers);
-    }
-
-    private List<JobExecutionDetails> getJobExecutionDetailsMap(Set<Trigger> triggers) {
-        return triggers.stream()
-                .map(trigger -> {
-                    JobDetail jobDetail;
-                    try {
-                        jobDetail = scheduler.getJobDetail(trigger.getJobKey());
-                    } catch (SchedulerException e) {
-                        log.warn("Error while getting info about scheduled jobs. Message: {}", e.getMessage());
-                        jobLogService.log(JobLogLevel.WARN, "Error while getting info about scheduled jobs. Message: " + e.getMessage());
-                        return null;
-                    }
-                    return new AbstractMap.SimpleEntry<>(trigger, jobDetail);
-                })
-                .filter(Objects::nonNull)
-                .map(entry -> buildJobExecutionDetails(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
-    }
-
-    private JobExecutionDetails buildJobExecutionDetails(Trigger trigger, JobDetail jobDetail) {
-        Trigger.TriggerState triggerState = null;
-        try {
-            triggerState = scheduler.getTriggerState(trigger.getKey());
-        } catch (SchedulerException e) {
-            log.warn("Error while getting info about {} trigger state. Message: {}", trigger.getKey().toString(), e.getMessage());
-            jobLogService.log(JobLogLevel.WARN, "Error while getting info about " + trigger.getKey().toString() +
-                    "trigger state. Message: " + e.getMessage());
+            jobLogService.log(JobLogLevel.WARN, "Error while getting info about scheduled jobs. Message: {}", e.getMessage());
         }
-        return JobExecutionDetails.builder()
-                .triggerClassName(trigger.getClass().getName())
-                .triggerKey(trigger.getKey())
-                .triggerDescription(trigger.getDescription())
-                .misfireInstruction(trigger.getMisfireInstruction())
-                .nextFireTime(trigger.getNextFireTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime())
-                .triggerState(nonNull(triggerState) ? triggerState.name() : null)
-                .jobClassName(jobDetail.getJobClass().getName())
-                .jobKey(jobDetail.getKey())
-                .jobDetailDescription(jobDetail.getDescription())
-                .concurrentExecutionDisallowed(jobDetail.isConcurrentExectionDisallowed())
-                .persistJobDataAfterExecution(jobDetail.isPersistJobDataAfterExecution())
-                .jobSelfRecovered(jobDetail.requestsRecovery())
-                .jobDetailsRemainStoredAfterExecution(jobDetail.isDurable())
+        return JobExecutionDetailsPage.builder()
+                .jobExecutionDetails(jobExecutionDetailsList)
+                .nextCursor(jobExecutionDetailsList.size() == limit
+                        ? JobExecutionDetailsUtils.encodeCursor(jobExecutionDetailsList.get(limit - 1)) : null)
                 .build();
     }
 
@@ -184,54 +173,45 @@ public class JobService {
         if (StringUtils.isEmpty(jobId) || StringUtils.isEmpty(jobGroupName)) {
             throw new ValidationException("Required value \"jobId\" or \"jobGroupName\" is not specified or empty");
         }
-        boolean jobDetailExists = scheduler.checkExists(new JobKey(jobId, jobGroupName));
+        boolean jobDetailExists = schedulerStateService.checkExists(new JobKey(jobId, jobGroupName));
         if (!jobDetailExists) {
             throw new JobDetailNotFoundException(
                     "JobDetail with such jobId: " + jobId + " and jobGroupName: " + jobGroupName + " is not found");
         }
     }
 
-    private Set<Trigger> getAllTriggers() throws SchedulerException {
-        Set<TriggerKey> triggerKeys = scheduler.getTriggerKeys(GroupMatcher.anyGroup());
-        return triggerKeys.stream()
-                .map(triggerKey -> {
-                    try {
-                        return scheduler.getTrigger(triggerKey);
-                    } catch (SchedulerException e) {
-                        log.warn("Error while getting info about scheduled jobs. Message: {}", e.getMessage());
-                        jobLogService.log(JobLogLevel.WARN, "Error while getting info about scheduled jobs. Message: " + e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-    }
-
     private void checkTriggerExists(String triggerId, String triggerGroupName) throws SchedulerException {
         if (StringUtils.isEmpty(triggerId) || StringUtils.isEmpty(triggerGroupName)) {
             throw new ValidationException("Required value \"jobId\" or \"jobGroupName\" is not specified or empty");
         }
-        boolean triggerExists = scheduler.checkExists(new TriggerKey(triggerId, triggerGroupName));
+        boolean triggerExists = schedulerStateService.checkExists(new TriggerKey(triggerId, triggerGroupName));
         if (!triggerExists) {
             throw new TriggerNotFoundException(
                     "Trigger with such triggerId: " + triggerId + " and triggerGroupName: " + triggerGroupName + " is not found");
         }
     }
 
-    private void checkNewTriggerJobKey(String oldTriggerId, String oldTriggerGroupName, TriggerDto newTriggerDto) throws SchedulerException {
-        Trigger oldTrigger = scheduler.getTrigger(new TriggerKey(oldTriggerId, oldTriggerGroupName));
-        JobKey jobKey = oldTrigger.getJobKey();
-        boolean isJobKeyEquivalent =
-                jobKey.equals(new JobKey(newTriggerDto.getJobId(), newTriggerDto.getTriggerGroupName()));
-        if (!isJobKeyEquivalent) {
-            throw new ValidationException("Specified jobId: " + newTriggerDto.getJobId() + " and jobGroupName: " +
-                    newTriggerDto.getTriggerGroupName() + " for new trigger are not correct." +
-                    "Specified jobId and jobGroupName must be equivalent for new trigger and for old trigger");
+    //single cache lookup replaces separate existence check and trigger read
+    private Trigger getExistingTrigger(String triggerId, String triggerGroupName) throws SchedulerException {
+        if (StringUtils.isEmpty(triggerId) || StringUtils.isEmpty(triggerGroupName)) {
+            throw new ValidationException("Required value \"jobId\" or \"jobGroupName\" is not specified or empty");
         }
+        Trigger trigger = schedulerStateService.getTrigger(new TriggerKey(triggerId, triggerGroupName));
+        if (isNull(trigger)) {
+            throw new TriggerNotFoundException(
+                    "Trigger with such triggerId: " + triggerId + " and triggerGroupName: " + triggerGroupName + " is not found");
+        }
+        return trigger;
     }
 
-    private JobKey getJobKeyForTriggerKey(TriggerKey triggerKey) throws SchedulerException {
-        return scheduler.getTrigger(triggerKey).getJobKey();
+    private void checkNewTriggerJobKey(Trigger oldTrigger, TriggerSpec newTriggerSpec) {
+        JobKey newJobKey = newTriggerSpec.getJobKey();
+        boolean isJobKeyEquivalent = oldTrigger.getJobKey().equals(newJobKey);
+        if (!isJobKeyEquivalent) {
+            throw new ValidationException("Specified jobId: " + newJobKey.getName() + " and jobGroupName: " +
+                    newJobKey.getGroup() + " for new trigger are not correct." +
+                    "Specified jobId and jobGroupName must be equivalent for new trigger and for old trigger");
+        }
     }
 
     public boolean pauseJob(String jobId, String jobGroupName) {
@@ -240,18 +220,16 @@ public class JobService {
             scheduler.pauseJob(new JobKey(jobId, jobGroupName));
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(new JobKey(jobId, jobGroupName).toString())
-                    .triggerKey(null)
-                    .errorMessage("Job successfully paused")
+                    .jobKey(new JobKey(jobId, jobGroupName))
+                    .message("Job successfully paused")
                     .build();
             jobLogService.log(jobLog);
             return true;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(new JobKey(jobId, jobGroupName).toString())
-                    .triggerKey(null)
-                    .errorMessage("Error while pausing job. Message: " + e.getMessage())
+                    .jobKey(new JobKey(jobId, jobGroupName))
+                    .message("Error while pausing job. Message: {}", e.getMessage())
                     .build();
             log.error("Error while pausing job. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -265,18 +243,16 @@ public class JobService {
             scheduler.resumeJob(new JobKey(jobId, jobGroupName));
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(new JobKey(jobId, jobGroupName).toString())
-                    .triggerKey(null)
-                    .errorMessage("Job successfully resumed")
+                    .jobKey(new JobKey(jobId, jobGroupName))
+                    .message("Job successfully resumed")
                     .build();
             jobLogService.log(jobLog);
             return true;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(new JobKey(jobId, jobGroupName).toString())
-                    .triggerKey(null)
-                    .errorMessage("Error while resuming job. Message: " + e.getMessage())
+                    .jobKey(new JobKey(jobId, jobGroupName))
+                    .message("Error while resuming job. Message: {}", e.getMessage())
                     .build();
             log.error("Error while resuming job. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -290,18 +266,16 @@ public class JobService {
             scheduler.pauseTrigger(new TriggerKey(triggerId, triggerGroupName));
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(null)
-                    .triggerKey(new TriggerKey(triggerId, triggerGroupName).toString())
-                    .errorMessage("Trigger successfully paused")
+                    .triggerKey(new TriggerKey(triggerId, triggerGroupName))
+                    .message("Trigger successfully paused")
                     .build();
             jobLogService.log(jobLog);
             return true;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(null)
-                    .triggerKey(new TriggerKey(triggerId, triggerGroupName).toString())
-                    .errorMessage("Error while pausing trigger. Message: " + e.getMessage())
+                    .triggerKey(new TriggerKey(triggerId, triggerGroupName))
+                    .message("Error while pausing trigger. Message: {}", e.getMessage())
                     .build();
             log.error("Error while pausing trigger. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -315,18 +289,16 @@ public class JobService {
             scheduler.resumeTrigger(new TriggerKey(triggerId, triggerGroupName));
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.INFO)
-                    .jobKey(null)
-                    .triggerKey(new TriggerKey(triggerId, triggerGroupName).toString())
-                    .errorMessage("Trigger successfully resumed")
+                    .triggerKey(new TriggerKey(triggerId, triggerGroupName))
+                    .message("Trigger successfully resumed")
                     .build();
             jobLogService.log(jobLog);
             return true;
         } catch (SchedulerException e) {
             JobLog jobLog = JobLog.builder()
                     .logLevel(JobLogLevel.ERROR)
-                    .jobKey(null)
-                    .triggerKey(new TriggerKey(triggerId, triggerGroupName).toString())
-                    .errorMessage("Error while resuming trigger. Message: " + e.getMessage())
+                    .triggerKey(new TriggerKey(triggerId, triggerGroupName))
+                    .message("Error while resuming trigger. Message: {}", e.getMessage())
                     .build();
             log.error("Error while resuming trigger. Message: {}", e.getMessage());
             jobLogService.log(jobLog);
@@ -0,0 +1,17 @@
+package com.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+//runs business writes of a job fire and its job log entry in one transaction, so every fire has a single commit
+@Service
+@RequiredArgsConstructor
+public class JobTransactionService {
+
+    private final TransactionTemplate transactionTemplate;
+
+    public void executeInTransaction(Runnable jobAction) {
+        transactionTemplate.executeWithoutResult(status -> jobAction.run());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.service;
+
+import com.example.util.JobLogUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class MessageArchiveService {
+
+    private static final String FIND_ARCHIVED_IDS =
+            "SELECT id FROM atimis_logistic.messages WHERE date < :cutoffDate ORDER BY id LIMIT :chunkSize";
+    private static final String INSERT_ARCHIVED_MESSAGES =
+            "INSERT IGNORE INTO atimis_logistic.messages_archive (id, message, date) " +
+            "SELECT id, message, date FROM atimis_logistic.messages WHERE id IN (:ids)";
+    private static final String DELETE_ARCHIVED_MESSAGES = "DELETE FROM atimis_logistic.messages WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${message.archive.retention-days:30}")
+    private int retentionDays;
+    @Value("${message.archive.chunk-size:1000}")
+    private int chunkSize;
+    @Value("${message.archive.chunk-pause-ms:200}")
+    private long chunkPauseMs;
+    @Value("${message.archive.max-duration-ms:600000}")
+    private long maxDurationMs;
+    @Value("${message.archive.progress-interval-chunks:50}")
+    private int progressIntervalChunks;
+
+    //small chunks with pauses keep row locks short and give replicas time to catch up
+    public long archiveExpiredMessages(LongConsumer progressListener) throws InterruptedException {
+        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        long archivedCount = 0;
+        int chunkCount = 0;
+        int archivedChunkSize;
+        while ((archivedChunkSize = archiveChunk(cutoffDate)) > 0) {
+            archivedCount += archivedChunkSize;
+            if (++chunkCount % progressIntervalChunks == 0) {
+                progressListener.accept(archivedCount);
+            }
+            if (archivedChunkSize < chunkSize) {
+                break;
+            }
+            if (System.nanoTime() >= deadline) {
+                log.info("Message archiving stopped after {} ms, remaining messages are archived on the next run",
+                        maxDurationMs);
+                break;
+            }
+            TimeUnit.MILLISECONDS.sleep(chunkPauseMs);
+        }
+        return archivedCount;
+    }
+
+    private int archiveChunk(LocalDateTime cutoffDate) {
+        List<Integer> ids = namedParameterJdbcTemplate.queryForList(FIND_ARCHIVED_IDS, new MapSqlParameterSource()
+                        .addValue("cutoffDate", JobLogUtils.toUtcTimestamp(cutoffDate))
+                        .addValue("chunkSize", chunkSize),
+                Integer.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids);
+        transactionTemplate.executeWithoutResult(status -> {
+            namedParameterJdbcTemplate.update(INSERT_ARCHIVED_MESSAGES, parameters);
+            namedParameterJdbcTemplate.update(DELETE_ARCHIVED_MESSAGES, parameters);
+        });
+        return ids.size();
+    }
+}
@@ -1,18 +1,146 @@
 package com.example.service;
 
+import com.example.domain.JobLogLevel;
 import com.example.entity.Message;
+import com.example.repository.MessageJdbcRepository;
 import com.example.repository.MessageRepository;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.nonNull;
+
+//buffered messages live only in memory until a flush commits them, messages buffered since the last flush, up to
+//buffer capacity, are lost when the process dies, graceful shutdown flushes them
+@Log4j2
 @Service
 @RequiredArgsConstructor
 public class MessageService {
 
     private final MessageRepository messageRepository;
+    private final MessageJdbcRepository messageJdbcRepository;
+    private final JobLogService jobLogService;
+    private final Queue<BufferedMessage> bufferedMessages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    @Value("${message.batch-size:1000}")
+    private int batchSize;
+    @Value("${message.buffer.flush-size:1000}")
+    private int bufferFlushSize;
+    @Value("${message.buffer.capacity:10000}")
+    private int bufferCapacity;
+
+    private ExecutorService flushExecutor;
+
+    @PostConstruct
+    public void init() {
+        flushExecutor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("message-buffer-flush-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        flushBufferedMessages();
+    }
 
     public void saveMessage(Message message) {
         messageRepository.save(message);
     }
-}
 
+    //one multi-row insert per message.batch-size messages, which keeps statements under the placeholder limit
+    //and max_allowed_packet
+    public void saveMessages(Collection<Message> messages) {
+        for (List<Message> batch : Lists.partition(new ArrayList<>(messages), batchSize)) {
+            messageJdbcRepository.saveAll(batch);
+        }
+    }
+
+    //success of a buffered message is logged only after its batch is committed
+    public void bufferMessage(Message message, JobKey jobKey, TriggerKey triggerKey) {
+        if (bufferedCount.get() >= bufferCapacity) {
+            throw new IllegalStateException("Message buffer is full, buffered messages: " + bufferedCount.get());
+        }
+        bufferedMessages.add(new BufferedMessage(message, jobKey, triggerKey));
+        //full buffer is flushed by the flush thread, so the quartz worker thread does not wait for the insert
+        if (bufferedCount.incrementAndGet() >= bufferFlushSize && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flushBufferedMessages();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${message.buffer.flush-interval-ms:5000}")
+    public synchronized void flushBufferedMessages() {
+        List<BufferedMessage> batch = new ArrayList<>(batchSize);
+        BufferedMessage bufferedMessage;
+        while (nonNull(bufferedMessage = bufferedMessages.poll())) {
+            batch.add(bufferedMessage);
+            if (batch.size() == batchSize && !flushBatch(batch)) {
+                return;
+            }
+        }
+        flushBatch(batch);
+    }
+
+    //failed batch is returned to the buffer and retried on the next flush
+    private boolean flushBatch(List<BufferedMessage> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            messageJdbcRepository.saveAll(batch.stream().map(BufferedMessage::getMessage).collect(Collectors.toList()));
+            bufferedCount.addAndGet(-batch.size());
+            logSavedMessages(batch);
+            return true;
+        } catch (Exception e) {
+            log.error("Error while saving {} buffered messages. Message: {}", batch.size(), e.getMessage());
+            bufferedMessages.addAll(batch);
+            return false;
+        } finally {
+            batch.clear();
+        }
+    }
+
+    //one entry per trigger and batch instead of one per message
+    private void logSavedMessages(List<BufferedMessage> batch) {
+        batch.stream()
+                .collect(Collectors.groupingBy(BufferedMessage::getTriggerKey, LinkedHashMap::new, Collectors.toList()))
+                .forEach((triggerKey, messages) -> jobLogService.log(JobLogLevel.INFO, messages.get(0).getJobKey(),
+                        triggerKey, "MessageJob successfully executed, buffered messages saved: {}", messages.size()));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class BufferedMessage {
+
+        private final Message message;
+        private final JobKey jobKey;
+        private final TriggerKey triggerKey;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.service;
+
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+//pending scheduler mutation, commands with the same coalescing key replace each other until applied
+@Getter
+class SchedulerCommand {
+
+    private final String targetKey;
+    private final SchedulerCommandType commandType;
+    private final Supplier<Boolean> action;
+    private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+    SchedulerCommand(String targetKey, SchedulerCommandType commandType, Supplier<Boolean> action) {
+        this.targetKey = targetKey;
+        this.commandType = commandType;
+        this.action = action;
+    }
+
+    String getCoalescingKey() {
+        return targetKey + "#" + commandType;
+    }
+
+    void apply() {
+        try {
+            future.complete(action.get());
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    //superseded command reports the result of the command which replaced it
+    void supersedeBy(SchedulerCommand command) {
+        command.getFuture().whenComplete((result, e) -> {
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else {
+                future.complete(result);
+            }
+        });
+    }
+
+    enum SchedulerCommandType {
+        RESCHEDULE,
+        STOP,
+        TRIGGER_STATE,
+        JOB_STATE
+    }
+}
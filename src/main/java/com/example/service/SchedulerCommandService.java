@@ -0,0 +1,159 @@
+package com.example.service;
+
+import com.example.domain.TriggerDto;
+import com.example.service.SchedulerCommand.SchedulerCommandType;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.JobKey;
+import org.quartz.TriggerKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.Objects.nonNull;
+
+//in async mode mutations are queued and applied by a single writer, bursts for the same key collapse to the last command
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class SchedulerCommandService {
+
+    private final JobService jobService;
+    private final Map<String, SchedulerCommand> pendingCommands = new LinkedHashMap<>();
+
+    @Value("${job.command-queue.enabled:false}")
+    private boolean isEnabled;
+    @Value("${job.command-queue.capacity:10000}")
+    private int capacity;
+    @Value("${job.command-queue.batch-size:500}")
+    private int batchSize;
+    @Value("${job.command-queue.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    private ScheduledExecutorService writer;
+    private long coalescedCount;
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("scheduler-command-writer").setDaemon(true).build());
+        writer.scheduleWithFixedDelay(this::applyPendingCommands, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (nonNull(writer)) {
+            writer.shutdown();
+            writer.awaitTermination(flushIntervalMs * 10, TimeUnit.MILLISECONDS);
+            applyPendingCommands();
+        }
+    }
+
+    public CompletableFuture<Boolean> updateScheduledJob(String triggerId, String triggerGroupName, TriggerDto triggerDto) {
+        return submit(getTargetKey(new TriggerKey(triggerId, triggerGroupName)), SchedulerCommandType.RESCHEDULE,
+                () -> jobService.updateScheduledJob(triggerId, triggerGroupName, triggerDto));
+    }
+
+    public CompletableFuture<Boolean> stopScheduledJob(String triggerId, String triggerGroupName) {
+        return submit(getTargetKey(new TriggerKey(triggerId, triggerGroupName)), SchedulerCommandType.STOP,
+                () -> jobService.stopScheduledJob(triggerId, triggerGroupName));
+    }
+
+    public CompletableFuture<Boolean> pauseJob(String jobId, String jobGroupName) {
+        return submit(getTargetKey(new JobKey(jobId, jobGroupName)), SchedulerCommandType.JOB_STATE,
+                () -> jobService.pauseJob(jobId, jobGroupName));
+    }
+
+    public CompletableFuture<Boolean> resumeJob(String jobId, String jobGroupName) {
+        return submit(getTargetKey(new JobKey(jobId, jobGroupName)), SchedulerCommandType.JOB_STATE,
+                () -> jobService.resumeJob(jobId, jobGroupName));
+    }
+
+    public CompletableFuture<Boolean> pauseTrigger(String triggerId, String triggerGroupName) {
+        return submit(getTargetKey(new TriggerKey(triggerId, triggerGroupName)), SchedulerCommandType.TRIGGER_STATE,
+                () -> jobService.pauseTrigger(triggerId, triggerGroupName));
+    }
+
+    public CompletableFuture<Boolean> resumeTrigger(String triggerId, String triggerGroupName) {
+        return submit(getTargetKey(new TriggerKey(triggerId, triggerGroupName)), SchedulerCommandType.TRIGGER_STATE,
+                () -> jobService.resumeTrigger(triggerId, triggerGroupName));
+    }
+
+    private CompletableFuture<Boolean> submit(String targetKey, SchedulerCommandType commandType, Supplier<Boolean> action) {
+        if (!isEnabled) {
+            return CompletableFuture.completedFuture(action.get());
+        }
+        SchedulerCommand command = new SchedulerCommand(targetKey, commandType, action);
+        synchronized (pendingCommands) {
+            //stop makes every pending command for the same trigger pointless
+            if (commandType == SchedulerCommandType.STOP) {
+                Iterator<SchedulerCommand> iterator = pendingCommands.values().iterator();
+                while (iterator.hasNext()) {
+                    SchedulerCommand pendingCommand = iterator.next();
+                    if (pendingCommand.getTargetKey().equals(targetKey)) {
+                        iterator.remove();
+                        pendingCommand.supersedeBy(command);
+                        coalescedCount++;
+                    }
+                }
+            }
+            //replaced command is removed, so the last command keeps its arrival position relative to other keys
+            SchedulerCommand pendingCommand = pendingCommands.remove(command.getCoalescingKey());
+            if (nonNull(pendingCommand)) {
+                pendingCommand.supersedeBy(command);
+                coalescedCount++;
+            } else if (pendingCommands.size() >= capacity) {
+                throw new IllegalStateException("Scheduler command queue is full. Capacity: " + capacity);
+            }
+            pendingCommands.put(command.getCoalescingKey(), command);
+        }
+        return command.getFuture();
+    }
+
+    private void applyPendingCommands() {
+        List<SchedulerCommand> batch;
+        do {
+            batch = takeBatch();
+            batch.forEach(SchedulerCommand::apply);
+        } while (batch.size() == batchSize);
+    }
+
+    private List<SchedulerCommand> takeBatch() {
+        List<SchedulerCommand> batch = new ArrayList<>();
+        synchronized (pendingCommands) {
+            Iterator<SchedulerCommand> iterator = pendingCommands.values().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            if (!batch.isEmpty()) {
+                log.debug("Applying {} scheduler commands, {} commands coalesced so far", batch.size(), coalescedCount);
+            }
+        }
+        return batch;
+    }
+
+    private String getTargetKey(TriggerKey triggerKey) {
+        return "trigger:" + triggerKey;
+    }
+
+    private String getTargetKey(JobKey jobKey) {
+        return "job:" + jobKey;
+    }
+}
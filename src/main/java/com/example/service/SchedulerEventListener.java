@@ -0,0 +1,184 @@
+package com.example.service;
+
+import com.example.domain.SchedulerEventDto;
+import com.example.domain.SchedulerEventType;
+import lombok.RequiredArgsConstructor;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerListener;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static java.util.Objects.nonNull;
+
+//turns scheduler and trigger notifications into events for SchedulerEventService subscribers
+@Component
+@RequiredArgsConstructor
+public class SchedulerEventListener implements SchedulerListener, TriggerListener {
+
+    private final SchedulerEventService schedulerEventService;
+    private final SchedulerStateCache schedulerStateCache;
+
+    @Override
+    public String getName() {
+        return SchedulerEventListener.class.getSimpleName();
+    }
+
+    @Override
+    public void jobScheduled(Trigger trigger) {
+        publish(SchedulerEventType.TRIGGER_SCHEDULED, trigger);
+    }
+
+    @Override
+    public void jobUnscheduled(TriggerKey triggerKey) {
+        publish(eventBuilder(SchedulerEventType.TRIGGER_UNSCHEDULED).triggerKey(triggerKey.toString()));
+    }
+
+    @Override
+    public void triggerFinalized(Trigger trigger) {
+        publish(SchedulerEventType.TRIGGER_FINALIZED, trigger);
+    }
+
+    @Override
+    public void triggerPaused(TriggerKey triggerKey) {
+        publish(eventBuilder(SchedulerEventType.TRIGGER_PAUSED).triggerKey(triggerKey.toString()));
+    }
+
+    @Override
+    public void triggersPaused(String triggerGroup) {
+        publish(eventBuilder(SchedulerEventType.TRIGGER_GROUP_PAUSED).groupName(triggerGroup));
+    }
+
+    @Override
+    public void triggerResumed(TriggerKey triggerKey) {
+        publish(eventBuilder(SchedulerEventType.TRIGGER_RESUMED).triggerKey(triggerKey.toString()));
+    }
+
+    @Override
+    public void triggersResumed(String triggerGroup) {
+        publish(eventBuilder(SchedulerEventType.TRIGGER_GROUP_RESUMED).groupName(triggerGroup));
+    }
+
+    //must be called before SchedulerStateListener adds the job to the cache
+    @Override
+    public void jobAdded(JobDetail jobDetail) {
+        SchedulerEventType eventType = schedulerStateCache.containsJobDetail(jobDetail.getKey())
+                ? SchedulerEventType.JOB_UPDATED : SchedulerEventType.JOB_ADDED;
+        publish(eventBuilder(eventType).jobKey(jobDetail.getKey().toString()));
+    }
+
+    @Override
+    public void jobDeleted(JobKey jobKey) {
+        publish(eventBuilder(SchedulerEventType.JOB_DELETED).jobKey(jobKey.toString()));
+    }
+
+    @Override
+    public void jobPaused(JobKey jobKey) {
+        publish(eventBuilder(SchedulerEventType.JOB_PAUSED).jobKey(jobKey.toString()));
+    }
+
+    @Override
+    public void jobsPaused(String jobGroup) {
+        publish(eventBuilder(SchedulerEventType.JOB_GROUP_PAUSED).groupName(jobGroup));
+    }
+
+    @Override
+    public void jobResumed(JobKey jobKey) {
+        publish(eventBuilder(SchedulerEventType.JOB_RESUMED).jobKey(jobKey.toString()));
+    }
+
+    @Override
+    public void jobsResumed(String jobGroup) {
+        publish(eventBuilder(SchedulerEventType.JOB_GROUP_RESUMED).groupName(jobGroup));
+    }
+
+    @Override
+    public void schedulerError(String msg, SchedulerException cause) {
+
+    }
+
+    @Override
+    public void schedulerInStandbyMode() {
+
+    }
+
+    @Override
+    public void schedulerStarted() {
+
+    }
+
+    @Override
+    public void schedulerStarting() {
+
+    }
+
+    @Override
+    public void schedulerShutdown() {
+
+    }
+
+    @Override
+    public void schedulerShuttingdown() {
+
+    }
+
+    @Override
+    public void schedulingDataCleared() {
+
+    }
+
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+        publish(SchedulerEventType.TRIGGER_FIRED, trigger);
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        return false;
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        publish(SchedulerEventType.TRIGGER_MISFIRED, trigger);
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context,
+                                Trigger.CompletedExecutionInstruction triggerInstructionCode) {
+        publish(eventBuilder(SchedulerEventType.TRIGGER_COMPLETED)
+                .triggerKey(trigger.getKey().toString())
+                .jobKey(trigger.getJobKey().toString())
+                .nextFireTime(toDateString(trigger))
+                .completedExecutionInstruction(triggerInstructionCode.name()));
+    }
+
+    private void publish(SchedulerEventType eventType, Trigger trigger) {
+        publish(eventBuilder(eventType)
+                .triggerKey(trigger.getKey().toString())
+                .jobKey(trigger.getJobKey().toString())
+                .nextFireTime(toDateString(trigger)));
+    }
+
+    private void publish(SchedulerEventDto.SchedulerEventDtoBuilder eventBuilder) {
+        schedulerEventService.publish(eventBuilder.build());
+    }
+
+    private static SchedulerEventDto.SchedulerEventDtoBuilder eventBuilder(SchedulerEventType eventType) {
+        return SchedulerEventDto.builder()
+                .eventType(eventType)
+                .date(LocalDateTime.now().toString());
+    }
+
+    private static String toDateString(Trigger trigger) {
+        return nonNull(trigger.getNextFireTime())
+                ? trigger.getNextFireTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime().toString()
+                : null;
+    }
+}
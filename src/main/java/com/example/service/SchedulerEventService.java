@@ -0,0 +1,160 @@
+package com.example.service;
+
+import com.example.domain.SchedulerEventDto;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+//events are delivered by a small pool, listeners of the scheduler only put events to subscriber buffers
+@Log4j2
+@Service
+public class SchedulerEventService {
+
+    private static final String DROPPED_EVENT_NAME = "EVENTS_DROPPED";
+
+    private final Set<SchedulerEventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    @Value("${scheduler.events.buffer-capacity:1000}")
+    private int bufferCapacity;
+    @Value("${scheduler.events.max-subscribers:100}")
+    private int maxSubscribers;
+    @Value("${scheduler.events.timeout-ms:1800000}")
+    private long timeoutMs;
+    @Value("${scheduler.events.delivery-threads:2}")
+    private int deliveryThreads;
+    @Value("${scheduler.events.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    private ExecutorService deliveryExecutor;
+
+    @PostConstruct
+    public void init() {
+        deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads,
+                new ThreadFactoryBuilder().setNameFormat("scheduler-event-delivery-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.getEmitter().complete());
+        deliveryExecutor.shutdownNow();
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Max count of scheduler event subscribers is reached: " + maxSubscribers);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        SchedulerEventSubscriber subscriber = new SchedulerEventSubscriber(emitter, bufferCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public void publish(SchedulerEventDto event) {
+        for (SchedulerEventSubscriber subscriber : subscribers) {
+            subscriber.offer(event);
+            scheduleDelivery(subscriber);
+        }
+    }
+
+    //disconnected clients are noticed only when something is sent to them, heartbeats are sent by the delivery pool
+    //so a stalled client never blocks this thread, a client whose send exceeds write timeout is expired
+    @Scheduled(fixedDelayString = "${scheduler.events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (SchedulerEventSubscriber subscriber : subscribers) {
+            if (subscriber.isWriteTimedOut(now, writeTimeoutMs)) {
+                expire(subscriber);
+            } else {
+                subscriber.requestHeartbeat();
+                scheduleDelivery(subscriber);
+            }
+        }
+    }
+
+    private void scheduleDelivery(SchedulerEventSubscriber subscriber) {
+        if (subscriber.getDeliveryScheduled().compareAndSet(false, true)) {
+            deliveryExecutor.execute(() -> deliver(subscriber));
+        }
+    }
+
+    private void deliver(SchedulerEventSubscriber subscriber) {
+        while (true) {
+            boolean heartbeatRequested = subscriber.drainHeartbeat();
+            long droppedCount = subscriber.drainDroppedCount();
+            List<SchedulerEventDto> events = subscriber.drain();
+            try {
+                if (heartbeatRequested) {
+                    send(subscriber, SseEmitter.event().comment("heartbeat"));
+                }
+                if (droppedCount > 0) {
+                    send(subscriber, SseEmitter.event().name(DROPPED_EVENT_NAME).data(droppedCount));
+                }
+                for (SchedulerEventDto event : events) {
+                    send(subscriber, SseEmitter.event()
+                            .id(Long.toString(eventSequence.incrementAndGet()))
+                            .name(event.getEventType().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                if (subscriber.isExpired()) {
+                    throw new IllegalStateException("Scheduler event stream is expired");
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove(subscriber);
+                return;
+            }
+            subscriber.getDeliveryScheduled().set(false);
+            //events offered after the last drain are delivered by this run unless another run is already scheduled
+            if (subscriber.isEmpty() || !subscriber.getDeliveryScheduled().compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void send(SchedulerEventSubscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        if (subscriber.isExpired()) {
+            throw new IllegalStateException("Scheduler event stream is expired");
+        }
+        subscriber.setSendStartedAt(System.currentTimeMillis());
+        try {
+            subscriber.getEmitter().send(event);
+        } finally {
+            subscriber.setSendStartedAt(0);
+        }
+    }
+
+    //emitter methods wait for the blocked send, so the expired emitter is completed by its delivery thread
+    //once the container write timeout fails the send
+    private void expire(SchedulerEventSubscriber subscriber) {
+        log.warn("Scheduler event subscriber does not read its stream for more than {} ms and is disconnected",
+                writeTimeoutMs);
+        subscribers.remove(subscriber);
+        subscriber.expire();
+    }
+
+    private void remove(SchedulerEventSubscriber subscriber) {
+        subscribers.remove(subscriber);
+        try {
+            subscriber.getEmitter().complete();
+        } catch (Exception e) {
+            log.debug("Error while completing scheduler event stream. Message: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.service;
+
+import com.example.domain.SchedulerEventDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//bounded buffer of undelivered events of one client, a slow client loses its oldest events instead of blocking others
+class SchedulerEventSubscriber {
+
+    private final SseEmitter emitter;
+    private final int bufferCapacity;
+    private final Map<String, SchedulerEventDto> bufferedEvents = new LinkedHashMap<>();
+    private final AtomicBoolean deliveryScheduled = new AtomicBoolean();
+    private long droppedCount;
+    private boolean heartbeatRequested;
+    //start time of the send in progress or 0, a client which does not read its stream keeps a send blocked
+    private volatile long sendStartedAt;
+    private volatile boolean expired;
+
+    SchedulerEventSubscriber(SseEmitter emitter, int bufferCapacity) {
+        this.emitter = emitter;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    AtomicBoolean getDeliveryScheduled() {
+        return deliveryScheduled;
+    }
+
+    synchronized void offer(SchedulerEventDto event) {
+        String coalescingKey = event.getCoalescingKey();
+        if (bufferedEvents.remove(coalescingKey) == null && bufferedEvents.size() >= bufferCapacity) {
+            Iterator<String> iterator = bufferedEvents.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+            droppedCount++;
+        }
+        bufferedEvents.put(coalescingKey, event);
+    }
+
+    synchronized List<SchedulerEventDto> drain() {
+        List<SchedulerEventDto> events = new ArrayList<>(bufferedEvents.values());
+        bufferedEvents.clear();
+        return events;
+    }
+
+    synchronized long drainDroppedCount() {
+        long dropped = droppedCount;
+        droppedCount = 0;
+        return dropped;
+    }
+
+    synchronized void requestHeartbeat() {
+        heartbeatRequested = true;
+    }
+
+    synchronized boolean drainHeartbeat() {
+        boolean requested = heartbeatRequested;
+        heartbeatRequested = false;
+        return requested;
+    }
+
+    synchronized boolean isEmpty() {
+        return bufferedEvents.isEmpty() && droppedCount == 0 && !heartbeatRequested;
+    }
+
+    void setSendStartedAt(long sendStartedAt) {
+        this.sendStartedAt = sendStartedAt;
+    }
+
+    boolean isWriteTimedOut(long now, long writeTimeoutMs) {
+        long startedAt = sendStartedAt;
+        return startedAt > 0 && now - startedAt > writeTimeoutMs;
+    }
+
+    void expire() {
+        expired = true;
+    }
+
+    boolean isExpired() {
+        return expired;
+    }
+}
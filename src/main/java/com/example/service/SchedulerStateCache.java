@@ -0,0 +1,217 @@
+package com.example.service;
+
+import com.example.domain.SchedulerStateCacheStatsDto;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * In-memory index of jobs, triggers and trigger states of the scheduler.
+ * It is kept in sync by SchedulerStateListener and periodically reconciled with the job store by SchedulerStateService,
+ * lookups are answered only after the first reconciliation.
+ */
+@Component
+public class SchedulerStateCache {
+
+    private final Map<JobKey, JobDetail> jobDetails = new ConcurrentHashMap<>();
+    private final Map<TriggerKey, Trigger> triggers = new ConcurrentHashMap<>();
+    private final Map<TriggerKey, Trigger.TriggerState> triggerStates = new ConcurrentHashMap<>();
+    //keys changed by listeners while reconciliation snapshot is read, snapshot values of these keys are outdated
+    private final Set<Object> modifiedKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong reconciliationCorrectionCount = new AtomicLong();
+    //monotonic change counters, bumped on every change of job details and of triggers or their states
+    private final AtomicLong jobVersion = new AtomicLong();
+    private final AtomicLong triggerVersion = new AtomicLong();
+
+    private volatile boolean loaded;
+    private volatile LocalDateTime lastReconciliationDate;
+
+    public JobDetail getJobDetail(JobKey jobKey) {
+        return count(loaded ? jobDetails.get(jobKey) : null);
+    }
+
+    public Trigger getTrigger(TriggerKey triggerKey) {
+        return count(loaded ? triggers.get(triggerKey) : null);
+    }
+
+    //not counted as cache hit or miss, used to tell added jobs from updated ones
+    public boolean containsJobDetail(JobKey jobKey) {
+        return jobDetails.containsKey(jobKey);
+    }
+
+    public Trigger.TriggerState getTriggerState(TriggerKey triggerKey) {
+        return triggerStates.getOrDefault(triggerKey, Trigger.TriggerState.NONE);
+    }
+
+    //null when cache is not loaded yet
+    public List<JobDetail> getJobDetails() {
+        return count(loaded ? new ArrayList<>(jobDetails.values()) : null);
+    }
+
+    public List<Trigger> getTriggers() {
+        return count(loaded ? new ArrayList<>(triggers.values()) : null);
+    }
+
+    public long getJobVersion() {
+        return jobVersion.get();
+    }
+
+    public long getTriggerVersion() {
+        return triggerVersion.get();
+    }
+
+    public void putJobDetail(JobDetail jobDetail) {
+        modifiedKeys.add(jobDetail.getKey());
+        jobDetails.put(jobDetail.getKey(), jobDetail);
+        jobVersion.incrementAndGet();
+    }
+
+    public void removeJobDetail(JobKey jobKey) {
+        modifiedKeys.add(jobKey);
+        jobDetails.remove(jobKey);
+        jobVersion.incrementAndGet();
+        triggers.values().stream()
+                .filter(trigger -> trigger.getJobKey().equals(jobKey))
+                .map(Trigger::getKey)
+                .forEach(this::removeTrigger);
+    }
+
+    public void putTrigger(Trigger trigger) {
+        modifiedKeys.add(trigger.getKey());
+        triggers.put(trigger.getKey(), trigger);
+        triggerStates.putIfAbsent(trigger.getKey(), Trigger.TriggerState.NORMAL);
+        triggerVersion.incrementAndGet();
+    }
+
+    public void removeTrigger(TriggerKey triggerKey) {
+        modifiedKeys.add(triggerKey);
+        triggers.remove(triggerKey);
+        triggerStates.remove(triggerKey);
+        triggerVersion.incrementAndGet();
+    }
+
+    public void setTriggerState(TriggerKey triggerKey, Trigger.TriggerState triggerState) {
+        modifiedKeys.add(triggerKey);
+        triggerStates.computeIfPresent(triggerKey, (key, currentState) -> triggerState);
+        triggerVersion.incrementAndGet();
+    }
+
+    //state changed in the job store without a cached value to update, e.g. BLOCKED back to WAITING
+    public void markTriggersChanged() {
+        triggerVersion.incrementAndGet();
+    }
+
+    public void setTriggerStates(Predicate<Trigger> triggerPredicate, Trigger.TriggerState triggerState) {
+        triggers.values().stream()
+                .filter(triggerPredicate)
+                .map(Trigger::getKey)
+                .forEach(triggerKey -> setTriggerState(triggerKey, triggerState));
+    }
+
+    public void clear() {
+        jobDetails.keySet().forEach(modifiedKeys::add);
+        triggers.keySet().forEach(modifiedKeys::add);
+        jobDetails.clear();
+        triggers.clear();
+        triggerStates.clear();
+        jobVersion.incrementAndGet();
+        triggerVersion.incrementAndGet();
+    }
+
+    public void beginReconciliation() {
+        modifiedKeys.clear();
+    }
+
+    public void completeReconciliation(Map<JobKey, JobDetail> actualJobDetails,
+                                       Map<TriggerKey, Trigger> actualTriggers,
+                                       Map<TriggerKey, Trigger.TriggerState> actualTriggerStates) {
+        long jobCorrectionCount = reconcile(jobDetails, actualJobDetails, SchedulerStateCache::isJobDetailChanged);
+        long triggerCorrectionCount = reconcile(triggers, actualTriggers, SchedulerStateCache::isTriggerChanged)
+                + reconcile(triggerStates, actualTriggerStates, (cachedState, actualState) -> cachedState != actualState);
+        if (jobCorrectionCount > 0) {
+            jobVersion.incrementAndGet();
+        }
+        if (triggerCorrectionCount > 0) {
+            triggerVersion.incrementAndGet();
+        }
+        reconciliationCorrectionCount.addAndGet(loaded ? jobCorrectionCount + triggerCorrectionCount : 0);
+        lastReconciliationDate = LocalDateTime.now();
+        loaded = true;
+    }
+
+    public SchedulerStateCacheStatsDto getStats() {
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        return SchedulerStateCacheStatsDto.builder()
+                .loaded(loaded)
+                .jobCount(jobDetails.size())
+                .triggerCount(triggers.size())
+                .hitCount(hits)
+                .missCount(misses)
+                .hitRatio(hits + misses == 0 ? null : (double) hits / (hits + misses))
+                .reconciliationCorrectionCount(reconciliationCorrectionCount.get())
+                .lastReconciliationDate(nonNull(lastReconciliationDate) ? lastReconciliationDate.toString() : null)
+                .build();
+    }
+
+    //values are always refreshed, only added, removed or changed values are counted as corrections
+    private <K, V> long reconcile(Map<K, V> cachedValues, Map<K, V> actualValues, BiPredicate<V, V> isChanged) {
+        long correctionCount = 0;
+        for (Map.Entry<K, V> actualEntry : actualValues.entrySet()) {
+            if (modifiedKeys.contains(actualEntry.getKey())) {
+                continue;
+            }
+            V cachedValue = cachedValues.put(actualEntry.getKey(), actualEntry.getValue());
+            if (isNull(cachedValue) || isChanged.test(cachedValue, actualEntry.getValue())) {
+                correctionCount++;
+            }
+        }
+        for (K cachedKey : cachedValues.keySet()) {
+            if (!actualValues.containsKey(cachedKey) && !modifiedKeys.contains(cachedKey)) {
+                cachedValues.remove(cachedKey);
+                correctionCount++;
+            }
+        }
+        return correctionCount;
+    }
+
+    //quartz job details and triggers are equal by key only
+    private static boolean isJobDetailChanged(JobDetail cachedJobDetail, JobDetail actualJobDetail) {
+        return !Objects.equals(cachedJobDetail.getJobClass(), actualJobDetail.getJobClass())
+                || !Objects.equals(cachedJobDetail.getDescription(), actualJobDetail.getDescription())
+                || cachedJobDetail.isDurable() != actualJobDetail.isDurable()
+                || cachedJobDetail.requestsRecovery() != actualJobDetail.requestsRecovery()
+                || !Objects.equals(cachedJobDetail.getJobDataMap().getWrappedMap(),
+                actualJobDetail.getJobDataMap().getWrappedMap());
+    }
+
+    private static boolean isTriggerChanged(Trigger cachedTrigger, Trigger actualTrigger) {
+        return !Objects.equals(cachedTrigger.getNextFireTime(), actualTrigger.getNextFireTime())
+                || !Objects.equals(cachedTrigger.getDescription(), actualTrigger.getDescription())
+                || cachedTrigger.getMisfireInstruction() != actualTrigger.getMisfireInstruction()
+                || !Objects.equals(cachedTrigger.getJobKey(), actualTrigger.getJobKey());
+    }
+
+    private <T> T count(T value) {
+        (nonNull(value) ? hitCount : missCount).incrementAndGet();
+        return value;
+    }
+}
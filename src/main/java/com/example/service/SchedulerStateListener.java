@@ -0,0 +1,202 @@
+package com.example.service;
+
+import lombok.RequiredArgsConstructor;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.JobListener;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerListener;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.TriggerListener;
+import org.quartz.impl.triggers.AbstractTrigger;
+import org.springframework.stereotype.Component;
+
+import static java.util.Objects.isNull;
+
+//applies changes made through this scheduler instance to SchedulerStateCache, changes of other cluster nodes are
+//picked up by reconciliation
+@Component
+@RequiredArgsConstructor
+public class SchedulerStateListener implements SchedulerListener, TriggerListener, JobListener {
+
+    private final SchedulerStateCache schedulerStateCache;
+
+    @Override
+    public String getName() {
+        return SchedulerStateListener.class.getSimpleName();
+    }
+
+    @Override
+    public void jobScheduled(Trigger trigger) {
+        schedulerStateCache.putTrigger(copy(trigger));
+    }
+
+    @Override
+    public void jobUnscheduled(TriggerKey triggerKey) {
+        schedulerStateCache.removeTrigger(triggerKey);
+    }
+
+    @Override
+    public void triggerFinalized(Trigger trigger) {
+        schedulerStateCache.removeTrigger(trigger.getKey());
+    }
+
+    @Override
+    public void triggerPaused(TriggerKey triggerKey) {
+        schedulerStateCache.setTriggerState(triggerKey, Trigger.TriggerState.PAUSED);
+    }
+
+    @Override
+    public void triggersPaused(String triggerGroup) {
+        schedulerStateCache.setTriggerStates(trigger -> isNull(triggerGroup)
+                || trigger.getKey().getGroup().equals(triggerGroup), Trigger.TriggerState.PAUSED);
+    }
+
+    @Override
+    public void triggerResumed(TriggerKey triggerKey) {
+        schedulerStateCache.setTriggerState(triggerKey, Trigger.TriggerState.NORMAL);
+    }
+
+    @Override
+    public void triggersResumed(String triggerGroup) {
+        schedulerStateCache.setTriggerStates(trigger -> isNull(triggerGroup)
+                || trigger.getKey().getGroup().equals(triggerGroup), Trigger.TriggerState.NORMAL);
+    }
+
+    @Override
+    public void jobAdded(JobDetail jobDetail) {
+        schedulerStateCache.putJobDetail(jobDetail);
+    }
+
+    @Override
+    public void jobDeleted(JobKey jobKey) {
+        schedulerStateCache.removeJobDetail(jobKey);
+    }
+
+    @Override
+    public void jobPaused(JobKey jobKey) {
+        schedulerStateCache.setTriggerStates(trigger -> trigger.getJobKey().equals(jobKey), Trigger.TriggerState.PAUSED);
+    }
+
+    @Override
+    public void jobsPaused(String jobGroup) {
+        schedulerStateCache.setTriggerStates(trigger -> isNull(jobGroup)
+                || trigger.getJobKey().getGroup().equals(jobGroup), Trigger.TriggerState.PAUSED);
+    }
+
+    @Override
+    public void jobResumed(JobKey jobKey) {
+        schedulerStateCache.setTriggerStates(trigger -> trigger.getJobKey().equals(jobKey), Trigger.TriggerState.NORMAL);
+    }
+
+    @Override
+    public void jobsResumed(String jobGroup) {
+        schedulerStateCache.setTriggerStates(trigger -> isNull(jobGroup)
+                || trigger.getJobKey().getGroup().equals(jobGroup), Trigger.TriggerState.NORMAL);
+    }
+
+    @Override
+    public void schedulingDataCleared() {
+        schedulerStateCache.clear();
+    }
+
+    @Override
+    public void schedulerError(String msg, SchedulerException cause) {
+
+    }
+
+    @Override
+    public void schedulerInStandbyMode() {
+
+    }
+
+    @Override
+    public void schedulerStarted() {
+
+    }
+
+    @Override
+    public void schedulerStarting() {
+
+    }
+
+    @Override
+    public void schedulerShutdown() {
+
+    }
+
+    @Override
+    public void schedulerShuttingdown() {
+
+    }
+
+    //fired trigger already has the next fire time
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+        schedulerStateCache.putTrigger(copy(trigger));
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        return false;
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        schedulerStateCache.putTrigger(copy(trigger));
+    }
+
+    @Override
+    public void triggerComplete(Trigger trigger, JobExecutionContext context,
+                                Trigger.CompletedExecutionInstruction triggerInstructionCode) {
+        switch (triggerInstructionCode) {
+            case DELETE_TRIGGER:
+                schedulerStateCache.removeTrigger(trigger.getKey());
+                break;
+            case SET_TRIGGER_COMPLETE:
+                schedulerStateCache.setTriggerState(trigger.getKey(), Trigger.TriggerState.COMPLETE);
+                break;
+            case SET_TRIGGER_ERROR:
+                schedulerStateCache.setTriggerState(trigger.getKey(), Trigger.TriggerState.ERROR);
+                break;
+            case SET_ALL_JOB_TRIGGERS_COMPLETE:
+                schedulerStateCache.setTriggerStates(jobTrigger -> jobTrigger.getJobKey().equals(trigger.getJobKey()),
+                        Trigger.TriggerState.COMPLETE);
+                break;
+            case SET_ALL_JOB_TRIGGERS_ERROR:
+                schedulerStateCache.setTriggerStates(jobTrigger -> jobTrigger.getJobKey().equals(trigger.getJobKey()),
+                        Trigger.TriggerState.ERROR);
+                break;
+            default:
+                //job store moves triggers of DisallowConcurrentExecution jobs from BLOCKED back to WAITING here
+                schedulerStateCache.markTriggersChanged();
+                break;
+        }
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+
+    }
+
+    //job data map of jobs with PersistJobDataAfterExecution is stored after every execution
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        if (context.getJobDetail().isPersistJobDataAfterExecution()) {
+            schedulerStateCache.putJobDetail(context.getJobDetail());
+        }
+    }
+
+    //triggers passed to listeners can be changed by the job store afterwards
+    private static Trigger copy(Trigger trigger) {
+        return trigger instanceof AbstractTrigger ? (Trigger) ((AbstractTrigger<?>) trigger).clone() : trigger;
+    }
+}
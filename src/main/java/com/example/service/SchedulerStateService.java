@@ -0,0 +1,140 @@
+package com.example.service;
+
+import com.example.domain.SchedulerStateCacheStatsDto;
+import com.example.repository.SchedulerJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+//reads scheduler state from SchedulerStateCache, job store is queried only on cache misses
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class SchedulerStateService {
+
+    private final Scheduler scheduler;
+    private final SchedulerStateCache schedulerStateCache;
+    private final SchedulerJdbcRepository schedulerJdbcRepository;
+    //change counters start from zero on every start, so tags of different application runs must differ
+    private final long instanceId = System.currentTimeMillis();
+
+    public JobDetail getJobDetail(JobKey jobKey) throws SchedulerException {
+        JobDetail jobDetail = schedulerStateCache.getJobDetail(jobKey);
+        return nonNull(jobDetail) ? jobDetail : scheduler.getJobDetail(jobKey);
+    }
+
+    public Trigger getTrigger(TriggerKey triggerKey) throws SchedulerException {
+        Trigger trigger = schedulerStateCache.getTrigger(triggerKey);
+        return nonNull(trigger) ? trigger : scheduler.getTrigger(triggerKey);
+    }
+
+    public boolean checkExists(JobKey jobKey) throws SchedulerException {
+        return nonNull(getJobDetail(jobKey));
+    }
+
+    public boolean checkExists(TriggerKey triggerKey) throws SchedulerException {
+        return nonNull(getTrigger(triggerKey));
+    }
+
+    public List<JobDetail> getJobDetails(String jobGroupName) throws SchedulerException {
+        List<JobDetail> jobDetails = schedulerStateCache.getJobDetails();
+        if (nonNull(jobDetails)) {
+            return jobDetails.stream()
+                    .filter(jobDetail -> StringUtils.isEmpty(jobGroupName)
+                            || jobDetail.getKey().getGroup().equals(jobGroupName))
+                    .collect(Collectors.toList());
+        }
+        Set<JobKey> jobKeys = StringUtils.isEmpty(jobGroupName)
+                ? scheduler.getJobKeys(GroupMatcher.anyGroup())
+                : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(jobGroupName));
+        jobDetails = new ArrayList<>(jobKeys.size());
+        for (JobKey jobKey : jobKeys) {
+            JobDetail jobDetail = scheduler.getJobDetail(jobKey);
+            if (nonNull(jobDetail)) {
+                jobDetails.add(jobDetail);
+            }
+        }
+        return jobDetails;
+    }
+
+    public List<Trigger> getTriggers(String triggerGroupName) throws SchedulerException {
+        List<Trigger> triggers = schedulerStateCache.getTriggers();
+        if (nonNull(triggers)) {
+            return triggers.stream()
+                    .filter(trigger -> StringUtils.isEmpty(triggerGroupName)
+                            || trigger.getKey().getGroup().equals(triggerGroupName))
+                    .collect(Collectors.toList());
+        }
+        Set<TriggerKey> triggerKeys = StringUtils.isEmpty(triggerGroupName)
+                ? scheduler.getTriggerKeys(GroupMatcher.anyGroup())
+                : scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(triggerGroupName));
+        triggers = new ArrayList<>(triggerKeys.size());
+        for (TriggerKey triggerKey : triggerKeys) {
+            Trigger trigger = scheduler.getTrigger(triggerKey);
+            if (nonNull(trigger)) {
+                triggers.add(trigger);
+            }
+        }
+        return triggers;
+    }
+
+    public Trigger.TriggerState getTriggerState(TriggerKey triggerKey) throws SchedulerException {
+        Trigger.TriggerState triggerState = schedulerStateCache.getTriggerState(triggerKey);
+        return triggerState != Trigger.TriggerState.NONE ? triggerState : scheduler.getTriggerState(triggerKey);
+    }
+
+    public String getJobDetailsETag() {
+        return instanceId + "-" + schedulerStateCache.getJobVersion();
+    }
+
+    public String getJobExecutionDetailsETag() {
+        return instanceId + "-" + schedulerStateCache.getJobVersion() + "-" + schedulerStateCache.getTriggerVersion();
+    }
+
+    public SchedulerStateCacheStatsDto getCacheStats() {
+        return schedulerStateCache.getStats();
+    }
+
+    //first run loads the cache, next runs correct changes missed by listeners, e.g. made by other cluster nodes
+    @Scheduled(fixedDelayString = "${scheduler.cache.reconciliation-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            schedulerStateCache.beginReconciliation();
+            String schedulerName = scheduler.getSchedulerName();
+            Map<JobKey, JobDetail> jobDetails = schedulerJdbcRepository.findAllJobDetails(schedulerName);
+            Map<TriggerKey, Trigger> triggers = schedulerJdbcRepository.findAllTriggers(schedulerName);
+            //triggers of other types than simple and cron are not created by the service and are loaded one by one
+            for (Map.Entry<TriggerKey, Trigger> triggerEntry : triggers.entrySet()) {
+                if (isNull(triggerEntry.getValue())) {
+                    triggerEntry.setValue(scheduler.getTrigger(triggerEntry.getKey()));
+                }
+            }
+            triggers.values().removeIf(Objects::isNull);
+            Map<TriggerKey, Trigger.TriggerState> triggerStates =
+                    schedulerJdbcRepository.findAllTriggerStates(schedulerName);
+            triggerStates.keySet().retainAll(triggers.keySet());
+            schedulerStateCache.completeReconciliation(jobDetails, triggers, triggerStates);
+        } catch (Exception e) {
+            log.warn("Error while reconciling scheduler state cache. Message: {}", e.getMessage());
+        }
+    }
+}
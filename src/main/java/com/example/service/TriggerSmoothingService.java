@@ -0,0 +1,113 @@
+package com.example.service;
+
+import com.example.domain.TriggerSpec;
+import com.example.util.TriggerUtils;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+//spreads opted-in triggers away from seconds where already planned fires are over target density
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class TriggerSmoothingService {
+
+    private static final long SECOND_MS = 1000;
+
+    private final FireTimeForecastService fireTimeForecastService;
+
+    @Value("${job.smoothing.max-fires-per-second:20}")
+    private int maxFiresPerSecond;
+    @Value("${job.smoothing.max-offset-seconds:59}")
+    private int maxOffsetSeconds;
+    @Value("${job.smoothing.horizon-minutes:60}")
+    private int horizonMinutes;
+    @Value("${job.smoothing.forecast-ttl-ms:60000}")
+    private long forecastTtlMs;
+
+    //triggers whose fires are reserved in the current forecast, a reservation of a newer forecast is not cancelled
+    private final Multiset<TriggerKey> reservedTriggerKeys = HashMultiset.create();
+    private long[] plannedFireCounts;
+    private long forecastStartTime;
+
+    //fires of the returned trigger are reserved, so next triggers of the same batch see them, a caller cancels
+    //the reservation when the trigger is not scheduled
+    public synchronized TriggerSpec smooth(TriggerSpec triggerSpec) {
+        if (!triggerSpec.isSmoothFireTimes()) {
+            return triggerSpec;
+        }
+        refreshForecast();
+        TriggerSpec resultTriggerSpec = triggerSpec;
+        long plannedPeak = getPlannedPeak(TriggerUtils.convertSpecToTrigger(triggerSpec));
+        if (plannedPeak >= maxFiresPerSecond) {
+            resultTriggerSpec = TriggerUtils.shiftFireTimes(triggerSpec, maxOffsetSeconds);
+            log.debug("Fire times of trigger {} are shifted, planned peak density: {} fires per second",
+                    triggerSpec.getTriggerKey(), plannedPeak);
+        }
+        addPlannedFires(TriggerUtils.convertSpecToTrigger(resultTriggerSpec), 1);
+        reservedTriggerKeys.add(resultTriggerSpec.getTriggerKey());
+        return resultTriggerSpec;
+    }
+
+    public synchronized void cancel(TriggerSpec smoothedTriggerSpec) {
+        if (smoothedTriggerSpec.isSmoothFireTimes() && reservedTriggerKeys.remove(smoothedTriggerSpec.getTriggerKey())) {
+            addPlannedFires(TriggerUtils.convertSpecToTrigger(smoothedTriggerSpec), -1);
+        }
+    }
+
+    //fires of a rescheduled trigger are removed, they are in the forecast either from its load or from a reservation
+    public synchronized void replace(Trigger replacedTrigger) {
+        if (nonNull(plannedFireCounts)) {
+            reservedTriggerKeys.remove(replacedTrigger.getKey());
+            addPlannedFires(replacedTrigger, -1);
+        }
+    }
+
+    //forecast is shared by requests for a while, triggers scheduled in between are added by smooth
+    private void refreshForecast() {
+        long now = System.currentTimeMillis();
+        if (isNull(plannedFireCounts) || now - forecastStartTime > forecastTtlMs) {
+            forecastStartTime = now / SECOND_MS * SECOND_MS;
+            plannedFireCounts = fireTimeForecastService.getFireCounts(forecastStartTime,
+                    forecastStartTime + horizonMinutes * 60_000L, SECOND_MS);
+            reservedTriggerKeys.clear();
+        }
+    }
+
+    private long getPlannedPeak(Trigger trigger) {
+        long plannedPeak = 0;
+        for (Date fireTime = getFirstFireTime(trigger); isInForecast(fireTime); fireTime = trigger.getFireTimeAfter(fireTime)) {
+            plannedPeak = Math.max(plannedPeak, plannedFireCounts[getBucketIndex(fireTime)]);
+        }
+        return plannedPeak;
+    }
+
+    private void addPlannedFires(Trigger trigger, int delta) {
+        for (Date fireTime = getFirstFireTime(trigger); isInForecast(fireTime); fireTime = trigger.getFireTimeAfter(fireTime)) {
+            int bucketIndex = getBucketIndex(fireTime);
+            plannedFireCounts[bucketIndex] = Math.max(0, plannedFireCounts[bucketIndex] + delta);
+        }
+    }
+
+    private Date getFirstFireTime(Trigger trigger) {
+        return trigger.getFireTimeAfter(new Date(forecastStartTime - 1));
+    }
+
+    private boolean isInForecast(Date fireTime) {
+        return nonNull(fireTime) && getBucketIndex(fireTime) < plannedFireCounts.length;
+    }
+
+    private int getBucketIndex(Date fireTime) {
+        return (int) ((fireTime.getTime() - forecastStartTime) / SECOND_MS);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.util;
+
+import com.example.domain.FireTimeForecastParameters;
+import com.example.domain.FireTimeForecastResolution;
+import com.example.exception.ValidationException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FireTimeForecastUtils {
+
+    public static void validateFireTimeForecastParameters(FireTimeForecastParameters parameters, int maxHorizonMinutes) {
+        if (isNull(parameters)) {
+            throw new ValidationException("Required FireTimeForecastParameters object is null");
+        }
+        if (nonNull(parameters.getStartDate())) {
+            try {
+                LocalDateTime.parse(parameters.getStartDate());
+            } catch (Exception e) {
+                throw new ValidationException("Value \"startDate\" is specified incorrectly or empty");
+            }
+        }
+        if (nonNull(parameters.getHorizonMinutes())
+                && (parameters.getHorizonMinutes() <= 0 || parameters.getHorizonMinutes() > maxHorizonMinutes)) {
+            throw new ValidationException("Value \"horizonMinutes\" is specified incorrectly, " +
+                    "it must be positive and not greater than " + maxHorizonMinutes);
+        }
+        if (nonNull(parameters.getResolution())) {
+            try {
+                FireTimeForecastResolution.valueOf(parameters.getResolution());
+            } catch (Exception e) {
+                throw new ValidationException("Value \"resolution\" is specified incorrectly or empty");
+            }
+        }
+        if (nonNull(parameters.getLimit()) && parameters.getLimit() <= 0) {
+            throw new ValidationException("Value \"limit\" is specified incorrectly, it must be positive");
+        }
+    }
+
+    public static long getStartTime(FireTimeForecastParameters parameters) {
+        return isNull(parameters.getStartDate())
+                ? System.currentTimeMillis()
+                : LocalDateTime.parse(parameters.getStartDate()).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public static FireTimeForecastResolution getResolution(FireTimeForecastParameters parameters) {
+        return nonNull(parameters.getResolution())
+                ? FireTimeForecastResolution.valueOf(parameters.getResolution()) : FireTimeForecastResolution.MINUTE;
+    }
+
+    public static long getBucketSizeMs(FireTimeForecastResolution resolution) {
+        return resolution == FireTimeForecastResolution.SECOND ? 1000 : 60_000;
+    }
+
+    public static String formatTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault()).toString();
+    }
+}
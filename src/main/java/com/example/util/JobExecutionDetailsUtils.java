@@ -0,0 +1,107 @@
+package com.example.util;
+
+import com.example.domain.JobExecutionDetails;
+import com.example.domain.JobExecutionDetailsCriteria;
+import com.example.domain.JobExecutionDetailsCursor;
+import com.example.domain.JobExecutionDetailsParameters;
+import com.example.exception.ValidationException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.quartz.Trigger;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JobExecutionDetailsUtils {
+
+    private static final String CURSOR_SEPARATOR = "\u001F";
+    //quartz stores -1 as next fire time of triggers which will not fire again
+    private static final long NO_NEXT_FIRE_TIME = -1;
+
+    public static JobExecutionDetailsCriteria convertParametersToCriteria(JobExecutionDetailsParameters parameters) {
+        return JobExecutionDetailsCriteria.builder()
+                .triggerGroupName(parameters.getTriggerGroupName())
+                .jobGroupName(parameters.getJobGroupName())
+                .triggerState(nonNull(parameters.getTriggerState())
+                        ? Trigger.TriggerState.valueOf(parameters.getTriggerState()) : null)
+                .jobClassName(parameters.getJobClassName())
+                .nextFireTimeFrom(toEpochMilli(parameters.getNextFireTimeFrom()))
+                .nextFireTimeTo(toEpochMilli(parameters.getNextFireTimeTo()))
+                .cursor(decodeCursor(parameters.getCursor()))
+                .build();
+    }
+
+    public static String encodeCursor(JobExecutionDetails jobExecutionDetails) {
+        long nextFireTime = nonNull(jobExecutionDetails.getNextFireTime())
+                ? jobExecutionDetails.getNextFireTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : NO_NEXT_FIRE_TIME;
+        String cursor = nextFireTime + CURSOR_SEPARATOR + jobExecutionDetails.getTriggerKey().getName() +
+                CURSOR_SEPARATOR + jobExecutionDetails.getTriggerKey().getGroup();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JobExecutionDetailsCursor decodeCursor(String cursor) {
+        if (isNull(cursor)) {
+            return null;
+        }
+        String decodedCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] cursorValues = decodedCursor.split(CURSOR_SEPARATOR, 3);
+        return new JobExecutionDetailsCursor(Long.valueOf(cursorValues[0]), cursorValues[1], cursorValues[2]);
+    }
+
+    public static void validateJobExecutionDetailsParameters(JobExecutionDetailsParameters parameters) {
+        if (isNull(parameters)) {
+            throw new ValidationException("Required JobExecutionDetailsParameters object is null");
+        }
+        if (nonNull(parameters.getTriggerState())) {
+            validateTriggerState(parameters.getTriggerState());
+        }
+        if (nonNull(parameters.getNextFireTimeFrom())) {
+            validateDate(parameters.getNextFireTimeFrom(), "nextFireTimeFrom");
+        }
+        if (nonNull(parameters.getNextFireTimeTo())) {
+            validateDate(parameters.getNextFireTimeTo(), "nextFireTimeTo");
+        }
+        if (nonNull(parameters.getCursor())) {
+            validateCursor(parameters.getCursor());
+        }
+        if (nonNull(parameters.getLimit()) && parameters.getLimit() <= 0) {
+            throw new ValidationException("Value \"limit\" is specified incorrectly, it must be positive");
+        }
+    }
+
+    private static Long toEpochMilli(String date) {
+        return isNull(date)
+                ? null : LocalDateTime.parse(date).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void validateTriggerState(String triggerState) {
+        try {
+            Trigger.TriggerState.valueOf(triggerState);
+        } catch (Exception e) {
+            throw new ValidationException("Value \"triggerState\" is specified incorrectly or empty");
+        }
+    }
+
+    private static void validateDate(String date, String parameterName) {
+        try {
+            LocalDateTime.parse(date);
+        } catch (Exception e) {
+            throw new ValidationException("Value \"" + parameterName + "\" is specified incorrectly or empty");
+        }
+    }
+
+    private static void validateCursor(String cursor) {
+        try {
+            decodeCursor(cursor);
+        } catch (Exception e) {
+            throw new ValidationException("Value \"cursor\" is specified incorrectly or empty");
+        }
+    }
+}
@@ -1,14 +1,31 @@
 package com.example.util;
 
+import com.example.domain.JobLogCriteria;
+import com.example.domain.JobLogCursor;
 import com.example.domain.JobLogDto;
+import com.example.domain.JobLogKeyMatchMode;
 import com.example.domain.JobLogLevel;
+import com.example.domain.JobLogMessageMatchMode;
 import com.example.domain.JobLogParameters;
+import com.example.domain.JobLogSortDirection;
+import com.example.domain.JobLogStatsParameters;
+import com.example.domain.JobLogStatsResolution;
 import com.example.entity.JobLog;
 import com.example.exception.ValidationException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.core.SqlTypeValue;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
@@ -16,6 +33,13 @@ import static java.util.Objects.nonNull;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class JobLogUtils {
 
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final String MESSAGE_PLACEHOLDER = "{}";
+    private static final char MESSAGE_PARAMETER_SEPARATOR = '\u001F';
+    //date range is always bound, so MySQL can prune job_logs partitions from plain range predicates
+    private static final LocalDateTime OPEN_RANGE_START_DATE = LocalDateTime.of(1970, 1, 2, 0, 0);
+    private static final LocalDateTime OPEN_RANGE_END_DATE = LocalDateTime.of(9999, 1, 1, 0, 0);
+
     public static JobLogDto convertJobLogToDto(JobLog jobLog) {
         return JobLogDto.builder()
                 .id(jobLog.getId())
@@ -27,6 +51,106 @@ public final class JobLogUtils {
                 .build();
     }
 
+    public static String formatMessage(String messageTemplate, List<String> messageArguments) {
+        StringBuilder message = new StringBuilder(messageTemplate.length());
+        int templateIndex = 0;
+        for (String messageArgument : messageArguments) {
+            int placeholderIndex = messageTemplate.indexOf(MESSAGE_PLACEHOLDER, templateIndex);
+            if (placeholderIndex < 0) {
+                break;
+            }
+            message.append(messageTemplate, templateIndex, placeholderIndex).append(messageArgument);
+            templateIndex = placeholderIndex + MESSAGE_PLACEHOLDER.length();
+        }
+        return message.append(messageTemplate.substring(templateIndex)).toString();
+    }
+
+    public static String encodeMessageParameters(List<String> messageArguments) {
+        return messageArguments.isEmpty()
+                ? null : String.join(String.valueOf(MESSAGE_PARAMETER_SEPARATOR), messageArguments);
+    }
+
+    public static List<String> decodeMessageParameters(String messageParameters) {
+        return isNull(messageParameters)
+                ? Collections.emptyList()
+                : Arrays.asList(StringUtils.splitPreserveAllTokens(messageParameters, MESSAGE_PARAMETER_SEPARATOR));
+    }
+
+    public static JobLogCriteria convertParametersToCriteria(JobLogParameters parameters) {
+        JobLogKeyMatchMode keyMatchMode = nonNull(parameters.getKeyMatchMode())
+                ? JobLogKeyMatchMode.valueOf(parameters.getKeyMatchMode()) : JobLogKeyMatchMode.EXACT;
+        JobLogMessageMatchMode messageMatchMode = nonNull(parameters.getMessageMatchMode())
+                ? JobLogMessageMatchMode.valueOf(parameters.getMessageMatchMode()) : JobLogMessageMatchMode.CONTAINS;
+        boolean isFullTextSearch = messageMatchMode == JobLogMessageMatchMode.FULL_TEXT;
+        JobLogSortDirection sortDirection = nonNull(parameters.getSortDirection())
+                ? JobLogSortDirection.valueOf(parameters.getSortDirection()) : JobLogSortDirection.ASC;
+        JobLogCursor cursor = decodeCursor(parameters.getCursor());
+
+        return JobLogCriteria.builder()
+                .id(parameters.getId())
+                .startDate(nonNull(parameters.getStartDate())
+                        ? LocalDateTime.parse(parameters.getStartDate()) : OPEN_RANGE_START_DATE)
+                .endDate(nonNull(parameters.getEndDate())
+                        ? LocalDateTime.parse(parameters.getEndDate()) : OPEN_RANGE_END_DATE)
+                .logLevel(nonNull(parameters.getJobLogLevel()) ? JobLogLevel.valueOf(parameters.getJobLogLevel()) : null)
+                .jobKeyPattern(toContainsPattern(parameters.getJobKey()))
+                .jobGroupPattern(toKeyPattern(parameters.getJobGroup(), keyMatchMode))
+                .jobNamePattern(toKeyPattern(parameters.getJobName(), keyMatchMode))
+                .triggerKeyPattern(toContainsPattern(parameters.getTriggerKey()))
+                .triggerGroupPattern(toKeyPattern(parameters.getTriggerGroup(), keyMatchMode))
+                .triggerNamePattern(toKeyPattern(parameters.getTriggerName(), keyMatchMode))
+                .errorMessagePattern(isFullTextSearch ? null : toContainsPattern(parameters.getErrorMessage()))
+                .messageText(isFullTextSearch ? null : parameters.getErrorMessage())
+                .fullTextMessage(isFullTextSearch ? parameters.getErrorMessage() : null)
+                .sortDirection(sortDirection)
+                .cursorDate(nonNull(cursor) ? cursor.getDate() : null)
+                .cursorId(nonNull(cursor) ? cursor.getId() : null)
+                .build();
+    }
+
+    public static String encodeCursor(JobLogDto jobLogDto) {
+        String cursor = jobLogDto.getDate() + CURSOR_SEPARATOR + jobLogDto.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JobLogCursor decodeCursor(String cursor) {
+        if (isNull(cursor)) {
+            return null;
+        }
+        String decodedCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separatorIndex = decodedCursor.lastIndexOf(CURSOR_SEPARATOR);
+        return new JobLogCursor(LocalDateTime.parse(decodedCursor.substring(0, separatorIndex)),
+                Integer.valueOf(decodedCursor.substring(separatorIndex + 1)));
+    }
+
+    //exact and prefix patterns have no leading wildcard, so they are resolved by index range scans
+    private static String toKeyPattern(String value, JobLogKeyMatchMode keyMatchMode) {
+        if (isNull(value)) {
+            return null;
+        }
+        return keyMatchMode == JobLogKeyMatchMode.PREFIX ? escapeLikeValue(value) + "%" : escapeLikeValue(value);
+    }
+
+    private static String toContainsPattern(String value) {
+        return isNull(value) ? null : "%" + escapeLikeValue(value) + "%";
+    }
+
+    private static String escapeLikeValue(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    //job_logs.date is stored in UTC, the same way as hibernate.jdbc.time_zone does for JPA reads and writes
+    public static Calendar utcCalendar() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+
+    public static SqlTypeValue toUtcTimestamp(LocalDateTime localDateTime) {
+        return isNull(localDateTime)
+                ? null
+                : (preparedStatement, index, sqlType, typeName) ->
+                    preparedStatement.setTimestamp(index, Timestamp.valueOf(localDateTime), utcCalendar());
+    }
+
     public static void validateJobLogParameters(JobLogParameters parameters) {
         if (isNull(parameters)) {
             throw new ValidationException("Required JobLogParameters object is null");
@@ -45,6 +169,36 @@ public final class JobLogUtils {
         if (nonNull(parameters.getJobLogLevel())) {
             validateJobLogLevel(parameters.getJobLogLevel());
         }
+        if (nonNull(parameters.getKeyMatchMode())) {
+            validateKeyMatchMode(parameters.getKeyMatchMode());
+        }
+        if (nonNull(parameters.getMessageMatchMode())) {
+            validateMessageMatchMode(parameters.getMessageMatchMode());
+        }
+        if (nonNull(parameters.getSortDirection())) {
+            validateSortDirection(parameters.getSortDirection());
+        }
+        if (nonNull(parameters.getCursor())) {
+            validateCursor(parameters.getCursor());
+        }
+        if (nonNull(parameters.getLimit())) {
+            validateLimit(parameters.getLimit());
+        }
+    }
+
+    public static void validateJobLogStatsParameters(JobLogStatsParameters parameters) {
+        if (isNull(parameters)) {
+            throw new ValidationException("Required JobLogStatsParameters object is null");
+        }
+        validateStartDate(parameters.getStartDate());
+        validateEndDate(parameters.getEndDate());
+        validateStartAndEndDateOrder(parameters.getStartDate(), parameters.getEndDate());
+        if (nonNull(parameters.getJobLogLevel())) {
+            validateJobLogLevel(parameters.getJobLogLevel());
+        }
+        if (nonNull(parameters.getResolution())) {
+            validateStatsResolution(parameters.getResolution());
+        }
     }
 
     private static void validateStartDate(String startDateString) {
@@ -80,4 +234,50 @@ public final class JobLogUtils {
             throw new ValidationException("Value \"jobLogLevel\" is specified incorrectly or empty");
         }
     }
+
+    private static void validateStatsResolution(String resolution) {
+        try {
+            JobLogStatsResolution.valueOf(resolution);
+        } catch (Exception e) {
+            throw new ValidationException("Value \"resolution\" is specified incorrectly or empty");
+        }
+    }
+
+    private static void validateKeyMatchMode(String keyMatchMode) {
+        try {
+            JobLogKeyMatchMode.valueOf(keyMatchMode);
+        } catch (Exception e) {
+            throw new ValidationException("Value \"keyMatchMode\" is specified incorrectly or empty");
+        }
+    }
+
+    private static void validateSortDirection(String sortDirection) {
+        try {
+            JobLogSortDirection.valueOf(sortDirection);
+        } catch (Exception e) {
+            throw new ValidationException("Value \"sortDirection\" is specified incorrectly or empty");
+        }
+    }
+
+    private static void validateMessageMatchMode(String messageMatchMode) {
+        try {
+            JobLogMessageMatchMode.valueOf(messageMatchMode);
+        } catch (Exception e) {
+            throw new ValidationException("Value \"messageMatchMode\" is specified incorrectly or empty");
+        }
+    }
+
+    private static void validateCursor(String cursor) {
+        try {
+            decodeCursor(cursor);
+        } catch (Exception e) {
+            throw new ValidationException("Value \"cursor\" is specified incorrectly or empty");
+        }
+    }
+
+    private static void validateLimit(Integer limit) {
+        if (limit <= 0) {
+            throw new ValidationException("Value \"limit\" is specified incorrectly, it must be positive");
+        }
+    }
 }
@@ -1,55 +1,114 @@
 package com.example.util;
 
 import com.example.domain.TriggerDto;
+import com.example.domain.TriggerSpec;
 import com.example.domain.TriggerType;
 import com.example.exception.ValidationException;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.quartz.*;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.function.Consumer;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static java.util.Objects.isNull;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class TriggerUtils {
 
-    private static final Map<TriggerType, Function<TriggerDto, Trigger>> TRIGGER_CONVERTORS =
-            ImmutableMap.<TriggerType, Function<TriggerDto, Trigger>>builder()
+    private static final int CRON_EXPRESSION_CACHE_SIZE = 1000;
+
+    //bulk onboarding uses a handful of cron patterns, so every pattern is parsed only once
+    private static final LoadingCache<String, CronExpression> CRON_EXPRESSIONS = CacheBuilder.newBuilder()
+            .maximumSize(CRON_EXPRESSION_CACHE_SIZE)
+            .build(CacheLoader.from(TriggerUtils::parseCronExpression));
+
+    private static final Pattern CRON_SECONDS_PATTERN = Pattern.compile("(\\d{1,2})(?:/(\\d{1,2}))?");
+
+    private static final Map<TriggerType, Function<TriggerSpec, Trigger>> TRIGGER_CONVERTORS =
+            ImmutableMap.<TriggerType, Function<TriggerSpec, Trigger>>builder()
                     .put(TriggerType.SIMPLE, TriggerUtils::createSimpleTrigger)
                     .put(TriggerType.CRON, TriggerUtils::createCronTrigger)
                     .build();
 
-    private static final Map<TriggerType, Consumer<TriggerDto>> TRIGGER_VALIDATORS =
-            ImmutableMap.<TriggerType, Consumer<TriggerDto>>builder()
-                    .put(TriggerType.SIMPLE, TriggerUtils::validateDtoValuesForSimpleTrigger)
-                    .put(TriggerType.CRON, TriggerUtils::validateDtoValuesForCronTrigger)
+    private static final Map<TriggerType, TriggerCompiler> TRIGGER_COMPILERS =
+            ImmutableMap.<TriggerType, TriggerCompiler>builder()
+                    .put(TriggerType.SIMPLE, TriggerUtils::compileDtoValuesForSimpleTrigger)
+                    .put(TriggerType.CRON, TriggerUtils::compileDtoValuesForCronTrigger)
                     .build();
 
-    public static Trigger convertDtoToTrigger(TriggerDto triggerDto) {
-        TriggerType triggerType = TriggerType.valueOf(triggerDto.getTriggerType());
-        Function<TriggerDto, Trigger> triggerConvertor = TRIGGER_CONVERTORS.get(triggerType);
+    public static Trigger convertSpecToTrigger(TriggerSpec triggerSpec) {
+        Function<TriggerSpec, Trigger> triggerConvertor = TRIGGER_CONVERTORS.get(triggerSpec.getTriggerType());
         if (isNull(triggerConvertor)) {
-            throw new IllegalArgumentException("Can not create trigger from trigger dto: " + triggerDto.toString());
+            throw new IllegalArgumentException("Can not create trigger of type: " + triggerSpec.getTriggerType());
         }
-        return triggerConvertor.apply(triggerDto);
+        return triggerConvertor.apply(triggerSpec);
     }
 
-    public static void validateTriggerDto(TriggerDto triggerDto) {
+    //validates dto and parses every value exactly once
+    public static TriggerSpec compileTriggerDto(TriggerDto triggerDto) {
         if (isNull(triggerDto)) {
             throw new ValidationException("Required TriggerDto object is null");
         }
-        validateTriggerType(triggerDto.getTriggerType());
+        TriggerType triggerType = parseTriggerType(triggerDto.getTriggerType());
         validateTriggerId(triggerDto.getTriggerId());
         validateTriggerGroupName(triggerDto.getTriggerGroupName());
-        validateDtoValuesByTriggerType(triggerDto);
+        TriggerCompiler triggerCompiler = TRIGGER_COMPILERS.get(triggerType);
+        if (isNull(triggerCompiler)) {
+            throw new IllegalArgumentException("Can not validate trigger dto: " + triggerDto.toString());
+        }
+        TriggerSpec.TriggerSpecBuilder triggerSpecBuilder = TriggerSpec.builder()
+                .triggerKey(new TriggerKey(triggerDto.getTriggerId(), triggerDto.getTriggerGroupName()))
+                .jobKey(new JobKey(triggerDto.getJobId(), triggerDto.getJobGroupName()))
+                .triggerType(triggerType)
+                .description(triggerDto.getDescription())
+                .smoothFireTimes(Boolean.TRUE.equals(triggerDto.getSmoothFireTimes()));
+        triggerCompiler.compile(triggerDto, triggerSpecBuilder, LocalDateTime.now());
+        return triggerSpecBuilder.build();
+    }
+
+    //offset depends only on trigger key, so the same trigger is always shifted the same way
+    public static TriggerSpec shiftFireTimes(TriggerSpec triggerSpec, int maxOffsetSeconds) {
+        int offsetSeconds = Math.floorMod(Hashing.murmur3_32()
+                .hashString(triggerSpec.getTriggerKey().toString(), StandardCharsets.UTF_8).asInt(), maxOffsetSeconds + 1);
+        if (triggerSpec.getTriggerType() == TriggerType.CRON) {
+            return triggerSpec.toBuilder()
+                    .cronExpression(getCronExpression(
+                            shiftCronSeconds(triggerSpec.getCronExpression().getCronExpression(), offsetSeconds)))
+                    .build();
+        }
+        //start is shifted less than one repeat interval, so the trigger does not skip its first fire
+        long offsetMs = Math.min(offsetSeconds * 1000L, triggerSpec.getRepeatIntervalMs() - 1);
+        return triggerSpec.toBuilder()
+                .startDate(triggerSpec.getStartDate().plusNanos(offsetMs * 1_000_000))
+                .build();
+    }
+
+    //only fixed seconds like "0" or increments like "0/15" are shifted, other seconds fields are kept as is
+    private static String shiftCronSeconds(String cronExpression, int offsetSeconds) {
+        String[] cronFields = cronExpression.trim().split("\\s+", 2);
+        Matcher matcher = CRON_SECONDS_PATTERN.matcher(cronFields[0]);
+        if (!matcher.matches() || cronFields.length < 2 || "0".equals(matcher.group(2))) {
+            return cronExpression;
+        }
+        int seconds = Integer.parseInt(matcher.group(1));
+        String shiftedSeconds = isNull(matcher.group(2))
+                ? String.valueOf((seconds + offsetSeconds) % 60)
+                : (seconds + offsetSeconds) % Integer.parseInt(matcher.group(2)) + "/" + matcher.group(2);
+        return shiftedSeconds + " " + cronFields[1];
     }
 
     private static void validateTriggerId(String triggerId) {
@@ -64,32 +123,31 @@ public final class TriggerUtils {
         }
     }
 
-    private static void validateTriggerType(String triggerType) {
+    private static TriggerType parseTriggerType(String triggerType) {
         try {
-            TriggerType.valueOf(triggerType);
+            return TriggerType.valueOf(triggerType);
         } catch (Exception e) {
             throw new ValidationException("Required value \"triggerType\" is specified incorrectly or empty");
         }
     }
 
-    private static void validateDtoValuesByTriggerType(TriggerDto triggerDto) {
-        TriggerType triggerType = TriggerType.valueOf(triggerDto.getTriggerType());
-        Consumer<TriggerDto> triggerValidator = TRIGGER_VALIDATORS.get(triggerType);
-        if (isNull(triggerValidator)) {
-            throw new IllegalArgumentException("Can not validate trigger dto: " + triggerDto.toString());
-        }
-        triggerValidator.accept(triggerDto);
-    }
-
-    private static void validateDtoValuesForSimpleTrigger(TriggerDto triggerDto) {
+    private static void compileDtoValuesForSimpleTrigger(TriggerDto triggerDto,
+                                                         TriggerSpec.TriggerSpecBuilder triggerSpecBuilder,
+                                                         LocalDateTime now) {
         validateRepeatForeverValue(triggerDto.getRepeatForever());
         validateRepeatInterval(triggerDto.getRepeatIntervalMs());
-        validateStartDate(triggerDto.getStartDate());
+        LocalDateTime startDate = parseStartDate(triggerDto.getStartDate(), now);
+        triggerSpecBuilder
+                .repeatForever(triggerDto.getRepeatForever())
+                .repeatIntervalMs(triggerDto.getRepeatIntervalMs())
+                .startDate(startDate);
         if (triggerDto.getRepeatForever()) {
-            validateEndDate(triggerDto.getEndDate());
-            validateStartAndEndDateOrder(triggerDto.getStartDate(), triggerDto.getEndDate());
+            LocalDateTime endDate = parseEndDate(triggerDto.getEndDate(), now);
+            validateStartAndEndDateOrder(startDate, endDate);
+            triggerSpecBuilder.endDate(endDate);
         } else {
             validateRepeatCount(triggerDto.getRepeatCount());
+            triggerSpecBuilder.repeatCount(triggerDto.getRepeatCount());
         }
     }
 
@@ -111,50 +169,67 @@ public final class TriggerUtils {
         }
     }
 
-    private static void validateDtoValuesForCronTrigger(TriggerDto triggerDto) {
-        validateCronExpression(triggerDto.getCronExpression());
-        validateStartDate(triggerDto.getStartDate());
-        validateEndDate(triggerDto.getEndDate());
-        validateStartAndEndDateOrder(triggerDto.getStartDate(), triggerDto.getEndDate());
+    private static void compileDtoValuesForCronTrigger(TriggerDto triggerDto,
+                                                       TriggerSpec.TriggerSpecBuilder triggerSpecBuilder,
+                                                       LocalDateTime now) {
+        CronExpression cronExpression = getCronExpression(triggerDto.getCronExpression());
+        LocalDateTime startDate = parseStartDate(triggerDto.getStartDate(), now);
+        LocalDateTime endDate = parseEndDate(triggerDto.getEndDate(), now);
+        validateStartAndEndDateOrder(startDate, endDate);
+        triggerSpecBuilder
+                .cronExpression(cronExpression)
+                .startDate(startDate)
+                .endDate(endDate);
     }
 
-    private static void validateCronExpression(String cronExpression) {
+    private static CronExpression getCronExpression(String cronExpression) {
+        if (isNull(cronExpression)) {
+            throw new ValidationException("Required value \"cronExpression\" is specified incorrectly or empty");
+        }
         try {
-            CronExpression.validateExpression(cronExpression);
-        } catch (ParseException e) {
+            return CRON_EXPRESSIONS.get(cronExpression);
+        } catch (ExecutionException | RuntimeException e) {
             throw new ValidationException("Required value \"cronExpression\" is specified incorrectly or empty");
         }
     }
 
-    private static void validateStartDate(String startDateString) {
+    private static CronExpression parseCronExpression(String cronExpression) {
+        try {
+            return new CronExpression(cronExpression);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private static LocalDateTime parseStartDate(String startDateString, LocalDateTime now) {
         LocalDateTime startDate;
         try {
             startDate = LocalDateTime.parse(startDateString);
         } catch (Exception e) {
             throw new ValidationException("Required value \"startDate\" is specified incorrectly or empty");
         }
-        boolean isFutureDate = startDate.isAfter(LocalDateTime.now());
+        boolean isFutureDate = startDate.isAfter(now);
         if (!isFutureDate) {
             throw new ValidationException("Required value \"startDate\" is specified incorrectly, date must not be past");
         }
+        return startDate;
     }
 
-    private static void validateEndDate(String endDateString) {
+    private static LocalDateTime parseEndDate(String endDateString, LocalDateTime now) {
         LocalDateTime endDate;
         try {
             endDate = LocalDateTime.parse(endDateString);
         } catch (Exception e) {
             throw new ValidationException("Required value \"endDate\" is specified incorrectly or empty");
         }
-        boolean isFutureDate = endDate.isAfter(LocalDateTime.now());
+        boolean isFutureDate = endDate.isAfter(now);
         if (!isFutureDate) {
             throw new ValidationException("Required value \"endDate\" is specified incorrectly, date must not be past");
         }
+        return endDate;
     }
 
-    private static void validateStartAndEndDateOrder(String startDateString, String endDateString) {
-        LocalDateTime startDate = LocalDateTime.parse(startDateString);
-        LocalDateTime endDate = LocalDateTime.parse(endDateString);
+    private static void validateStartAndEndDateOrder(LocalDateTime startDate, LocalDateTime endDate) {
         boolean isEndDateAfterStartDate = endDate.isAfter(startDate);
         if (!isEndDateAfterStartDate) {
             throw new ValidationException("Required value \"startDate\" and  \"endDate\" are specified incorrectly, " +
@@ -162,52 +237,53 @@ public final class TriggerUtils {
         }
     }
 
-    private static Trigger createSimpleTrigger(TriggerDto triggerDto) {
+    private static Trigger createSimpleTrigger(TriggerSpec triggerSpec) {
 
         SimpleScheduleBuilder schedulerBuilder = SimpleScheduleBuilder
                 .simpleSchedule()
-                .withIntervalInMilliseconds(triggerDto.getRepeatIntervalMs())
+                .withIntervalInMilliseconds(triggerSpec.getRepeatIntervalMs())
                 //this instruction force trigger re-execute job now if something went wrong
                 .withMisfireHandlingInstructionNowWithRemainingCount();
 
-        schedulerBuilder = triggerDto.getRepeatForever()
-                ? schedulerBuilder.repeatForever() : schedulerBuilder.withRepeatCount(triggerDto.getRepeatCount());
-
-        TriggerKey triggerKey = new TriggerKey(triggerDto.getTriggerId(), triggerDto.getTriggerGroupName());
+        schedulerBuilder = triggerSpec.isRepeatForever()
+                ? schedulerBuilder.repeatForever() : schedulerBuilder.withRepeatCount(triggerSpec.getRepeatCount());
 
-        return triggerDto.getRepeatForever()
+        return triggerSpec.isRepeatForever()
                 ? TriggerBuilder.newTrigger()
-                    .withIdentity(triggerKey)
+                    .withIdentity(triggerSpec.getTriggerKey())
                     .withSchedule(schedulerBuilder)
-                    .startAt(Timestamp.valueOf(LocalDateTime.parse(triggerDto.getStartDate())))
-                    .endAt(Timestamp.valueOf(LocalDateTime.parse(triggerDto.getEndDate())))
-                    .withDescription(triggerDto.getDescription())
-                    .forJob(triggerDto.getJobId(), triggerDto.getJobGroupName())
+                    .startAt(Timestamp.valueOf(triggerSpec.getStartDate()))
+                    .endAt(Timestamp.valueOf(triggerSpec.getEndDate()))
+                    .withDescription(triggerSpec.getDescription())
+                    .forJob(triggerSpec.getJobKey())
                     .build()
                 : TriggerBuilder.newTrigger()
-                    .withIdentity(triggerKey)
+                    .withIdentity(triggerSpec.getTriggerKey())
                     .withSchedule(schedulerBuilder)
-                    .startAt(Timestamp.valueOf(LocalDateTime.parse(triggerDto.getStartDate())))
-                    .withDescription(triggerDto.getDescription())
-                    .forJob(triggerDto.getJobId(), triggerDto.getJobGroupName())
+                    .startAt(Timestamp.valueOf(triggerSpec.getStartDate()))
+                    .withDescription(triggerSpec.getDescription())
+                    .forJob(triggerSpec.getJobKey())
                     .build();
     }
 
-    private static Trigger createCronTrigger(TriggerDto triggerDto) {
+    private static Trigger createCronTrigger(TriggerSpec triggerSpec) {
         CronScheduleBuilder scheduleBuilder = CronScheduleBuilder
-                .cronSchedule(triggerDto.getCronExpression())
+                .cronSchedule(triggerSpec.getCronExpression())
                 //this instruction force trigger re-execute job now if something went wrong
                 .withMisfireHandlingInstructionFireAndProceed();
 
-        TriggerKey triggerKey = new TriggerKey(triggerDto.getTriggerId(), triggerDto.getTriggerGroupName());
-
         return TriggerBuilder.newTrigger()
-                .withIdentity(triggerKey)
+                .withIdentity(triggerSpec.getTriggerKey())
                 .withSchedule(scheduleBuilder)
-                .startAt(Timestamp.valueOf(triggerDto.getStartDate()))
-                .endAt(Timestamp.valueOf(triggerDto.getEndDate()))
-                .withDescription(triggerDto.getDescription())
-                .forJob(triggerDto.getJobId(), triggerDto.getJobGroupName())
+                .startAt(Timestamp.valueOf(triggerSpec.getStartDate()))
+                .endAt(Timestamp.valueOf(triggerSpec.getEndDate()))
+                .withDescription(triggerSpec.getDescription())
+                .forJob(triggerSpec.getJobKey())
                 .build();
     }
+
+    @FunctionalInterface
+    private interface TriggerCompiler {
+        void compile(TriggerDto triggerDto, TriggerSpec.TriggerSpecBuilder triggerSpecBuilder, LocalDateTime now);
+    }
 }
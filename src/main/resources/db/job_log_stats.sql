@@ -0,0 +1,10 @@
+CREATE TABLE atimis_logistic.job_log_stats
+(
+    bucket      DATETIME     NOT NULL,
+    job_key     VARCHAR(255) NOT NULL DEFAULT '',
+    trigger_key VARCHAR(255) NOT NULL DEFAULT '',
+    log_level   VARCHAR(10)  NOT NULL,
+    log_count   BIGINT       NOT NULL,
+    PRIMARY KEY (bucket, job_key, trigger_key, log_level),
+    INDEX idx_job_log_stats_job (job_key, bucket)
+);
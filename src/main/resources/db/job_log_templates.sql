@@ -0,0 +1,16 @@
+CREATE TABLE atimis_logistic.job_log_templates
+(
+    id       INT AUTO_INCREMENT PRIMARY KEY,
+    template VARCHAR(700) NOT NULL,
+    UNIQUE INDEX uq_job_log_templates_template (template),
+    FULLTEXT INDEX ftx_job_log_templates_template (template)
+);
+
+-- templated rows keep only template id and arguments, error_message stays for not templated messages
+ALTER TABLE atimis_logistic.job_logs
+    ADD COLUMN template_id INT NULL AFTER error_message,
+    ADD COLUMN message_parameters VARCHAR(2000) NULL AFTER template_id;
+
+-- skip for partitioned job_logs, see job_logs_partitioning.sql
+ALTER TABLE atimis_logistic.job_logs
+    ADD FULLTEXT INDEX ftx_job_logs_message_parameters (message_parameters);
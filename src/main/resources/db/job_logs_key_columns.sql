@@ -0,0 +1,19 @@
+ALTER TABLE atimis_logistic.job_logs
+    ADD COLUMN job_group VARCHAR(190) NULL AFTER job_key,
+    ADD COLUMN job_name VARCHAR(190) NULL AFTER job_group,
+    ADD COLUMN trigger_group VARCHAR(190) NULL AFTER trigger_key,
+    ADD COLUMN trigger_name VARCHAR(190) NULL AFTER trigger_group,
+    ADD INDEX idx_job_logs_job (job_group, job_name, date),
+    ADD INDEX idx_job_logs_trigger (trigger_group, trigger_name, date),
+    ADD FULLTEXT INDEX ftx_job_logs_error_message (error_message);
+
+-- backfill for rows written before the columns existed, keys are stored as "group.name"
+UPDATE atimis_logistic.job_logs
+SET job_group  = SUBSTRING_INDEX(job_key, '.', 1),
+    job_name   = SUBSTRING(job_key, LENGTH(SUBSTRING_INDEX(job_key, '.', 1)) + 2)
+WHERE job_key IS NOT NULL AND job_group IS NULL;
+
+UPDATE atimis_logistic.job_logs
+SET trigger_group = SUBSTRING_INDEX(trigger_key, '.', 1),
+    trigger_name  = SUBSTRING(trigger_key, LENGTH(SUBSTRING_INDEX(trigger_key, '.', 1)) + 2)
+WHERE trigger_key IS NOT NULL AND trigger_group IS NULL;
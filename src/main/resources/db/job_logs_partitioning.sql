@@ -0,0 +1,20 @@
+-- partitioned InnoDB tables do not support FULLTEXT indexes, message search falls back to CONTAINS mode
+ALTER TABLE atimis_logistic.job_logs DROP INDEX ftx_job_logs_error_message;
+
+-- every unique key of a partitioned table must include the partitioning column
+ALTER TABLE atimis_logistic.job_logs
+    MODIFY COLUMN date DATETIME NOT NULL,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, date),
+    ADD INDEX idx_job_logs_date (date, id);
+
+-- rows written before partitioning stay in p_history until it is dropped manually,
+-- daily partitions are split from p_future by JobLogPartitionJob starting from the p_history upper bound,
+-- the bound is the next UTC day at the moment the script is applied, so p_future starts empty
+SET @partition_sql = CONCAT(
+    'ALTER TABLE atimis_logistic.job_logs PARTITION BY RANGE COLUMNS (date) (',
+    'PARTITION p_history VALUES LESS THAN (''', DATE(UTC_TIMESTAMP()) + INTERVAL 1 DAY, ' 00:00:00''), ',
+    'PARTITION p_future VALUES LESS THAN (MAXVALUE))');
+PREPARE partition_statement FROM @partition_sql;
+EXECUTE partition_statement;
+DEALLOCATE PREPARE partition_statement;
@@ -0,0 +1,8 @@
+-- archived messages keep their original ids, rows are moved by MessageArchiveJob
+CREATE TABLE atimis_logistic.messages_archive LIKE atimis_logistic.messages;
+
+ALTER TABLE atimis_logistic.messages_archive
+    ADD COLUMN archived_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE atimis_logistic.messages
+    ADD INDEX idx_messages_date (date);
@@ -0,0 +1,128 @@
+package com.example.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//drives API calls against in-memory database and counts JDBC statements of every call, counts are asserted
+//against per-call budgets, so a change which adds round trips to a call fails the build
+@AutoConfigureMockMvc(addFilters = false)
+@SpringBootTest(properties = {
+        "spring.datasource.jdbc-url=jdbc:h2:mem:scheduler;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;" +
+                "INIT=RUNSCRIPT FROM 'classpath:db/h2_schema.sql'",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.quartz.jdbc.initialize-schema=always",
+        "job.log.spool.directory=target/spool",
+        "job.log.export.directory=target/exports",
+        "jdbc.statement-budget.enabled=true"
+})
+class JdbcStatementBudgetTest {
+
+    private static final String FUTURE_CRON_EXPRESSION = "0 0 0 1 1 ? 2099";
+    private static final String FUTURE_START_DATE = "2099-01-01T00:00:00";
+    private static final String FUTURE_END_DATE = "2100-01-01T00:00:00";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void saveJobDetailIsWithinBudget() throws Exception {
+        assertThat(count(saveJobDetail("saveJob"))).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void scheduleJobIsWithinBudget() throws Exception {
+        count(saveJobDetail("scheduleJob"));
+
+        assertThat(count(scheduleJob("scheduleJob", "scheduleTrigger"))).isLessThanOrEqualTo(7);
+    }
+
+    //one existence check per chunk and a fixed count of job store statements per trigger
+    @Test
+    void scheduleJobsIsWithinBudgetPerTrigger() throws Exception {
+        count(saveJobDetail("batchJob"));
+
+        assertThat(count(scheduleJobs("batchJob", "smallBatchTrigger", 2))).isLessThanOrEqualTo(1 + 2 * 7);
+        assertThat(count(scheduleJobs("batchJob", "largeBatchTrigger", 20))).isLessThanOrEqualTo(1 + 20 * 7);
+    }
+
+    @Test
+    void getScheduledJobsIsWithinBudget() throws Exception {
+        assertThat(count(get("/job/info"))).isLessThanOrEqualTo(1);
+    }
+
+    //job details and triggers are read from scheduler state cache
+    @Test
+    void cachedReadsDoNotTouchDatabase() throws Exception {
+        count(saveJobDetail("cachedJob"));
+        count(scheduleJob("cachedJob", "cachedTrigger"));
+
+        assertThat(count(get("/jobDetail"))).isZero();
+        assertThat(count(get("/jobDetail/cachedJob/budget"))).isZero();
+        assertThat(count(get("/job/forecast"))).isZero();
+        assertThat(count(get("/job/forecast/next"))).isZero();
+    }
+
+    @Test
+    void findLogsIsWithinBudget() throws Exception {
+        assertThat(count(post("/log/find").contentType(MediaType.APPLICATION_JSON).content("{}")))
+                .isLessThanOrEqualTo(1);
+    }
+
+    private static RequestBuilder saveJobDetail(String jobId) {
+        return post("/jobDetail")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"jobClassName\": \"com.example.job.TestJob\", \"jobId\": \"" + jobId + "\", " +
+                        "\"jobGroupName\": \"budget\", \"isJobDurable\": true}");
+    }
+
+    private static RequestBuilder scheduleJob(String jobId, String triggerId) {
+        return post("/job/run")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(getTriggerJson(jobId, triggerId));
+    }
+
+    private static RequestBuilder scheduleJobs(String jobId, String triggerIdPrefix, int triggerCount) {
+        return post("/job/run/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(IntStream.range(0, triggerCount)
+                        .mapToObj(index -> getTriggerJson(jobId, triggerIdPrefix + index))
+                        .collect(Collectors.joining(", ", "[", "]")));
+    }
+
+    private static String getTriggerJson(String jobId, String triggerId) {
+        return "{\"triggerId\": \"" + triggerId + "\", \"triggerGroupName\": \"budget\", \"triggerType\": \"CRON\", " +
+                "\"cronExpression\": \"" + FUTURE_CRON_EXPRESSION + "\", \"startDate\": \"" + FUTURE_START_DATE + "\", " +
+                "\"endDate\": \"" + FUTURE_END_DATE + "\", " +
+                "\"jobId\": \"" + jobId + "\", \"jobGroupName\": \"budget\"}";
+    }
+
+    //MockMvc runs the call on the test thread, so the thread bound counter sees every statement of the call
+    private int count(RequestBuilder requestBuilder) throws Exception {
+        JdbcStatementCounter.start();
+        try {
+            mockMvc.perform(requestBuilder).andExpect(status().isOk());
+        } catch (Exception | AssertionError e) {
+            JdbcStatementCounter.stop();
+            throw e;
+        }
+        return JdbcStatementCounter.stop();
+    }
+}
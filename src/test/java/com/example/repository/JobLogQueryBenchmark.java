@@ -0,0 +1,161 @@
+package com.example.repository;
+
+import com.example.domain.JobLogCriteria;
+import com.example.domain.JobLogSortDirection;
+import com.example.util.JobLogUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//compares the former catch-all query, which had "(:x IS NULL OR col = :x)" predicate for every filter, with the query
+//of JobLogQueryBuilder over a seeded job_logs table. Runs against in-memory H2 in MySQL mode by default, MySQL plans
+//are measured with -Dbenchmark.jdbc-url, -Dbenchmark.username and -Dbenchmark.password of a scratch database,
+//atimis_logistic.job_logs of that database is recreated. Started by the main method with the test classpath
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobLogQueryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final String SELECT =
+            "SELECT id, date, log_level, job_key, trigger_key, error_message, template_id, message_parameters " +
+            "FROM atimis_logistic.job_logs";
+    private static final String CATCH_ALL_QUERY = SELECT + " WHERE " +
+            "(:id IS NULL OR id = :id) AND date >= :startDate AND date <= :endDate AND " +
+            "(:logLevel IS NULL OR log_level = :logLevel) AND " +
+            "(:jobKeyPattern IS NULL OR job_key LIKE :jobKeyPattern) AND " +
+            "(:jobGroupPattern IS NULL OR job_group LIKE :jobGroupPattern) AND " +
+            "(:jobNamePattern IS NULL OR job_name LIKE :jobNamePattern) AND " +
+            "(:triggerKeyPattern IS NULL OR trigger_key LIKE :triggerKeyPattern) AND " +
+            "(:triggerGroupPattern IS NULL OR trigger_group LIKE :triggerGroupPattern) AND " +
+            "(:triggerNamePattern IS NULL OR trigger_name LIKE :triggerNamePattern) AND " +
+            "(:errorMessagePattern IS NULL OR error_message LIKE :errorMessagePattern) AND " +
+            "(:cursorDate IS NULL OR date > :cursorDate OR (date = :cursorDate AND id > :cursorId)) " +
+            "ORDER BY date, id LIMIT " + PAGE_SIZE;
+    private static final int JOB_GROUP_COUNT = 50;
+    private static final int SEED_DAYS = 30;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final LocalDateTime SEED_START_DATE = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Param({"1000000"})
+    private int rowCount;
+    @Param({"DATE_RANGE", "JOB_GROUP", "NEXT_PAGE", "DESCENDING_NEXT_PAGE"})
+    private String filter;
+
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private JobLogCriteria criteria;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JobLogQueryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void seed() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.jdbc-url", "jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;" +
+                        "INIT=CREATE SCHEMA IF NOT EXISTS atimis_logistic"),
+                System.getProperty("benchmark.username", "sa"),
+                System.getProperty("benchmark.password", ""));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS atimis_logistic.job_logs");
+        jdbcTemplate.execute("CREATE TABLE atimis_logistic.job_logs (" +
+                "id INT AUTO_INCREMENT PRIMARY KEY, date DATETIME(6) NOT NULL, log_level VARCHAR(10) NOT NULL, " +
+                "job_key VARCHAR(381), job_group VARCHAR(190), job_name VARCHAR(190), " +
+                "trigger_key VARCHAR(381), trigger_group VARCHAR(190), trigger_name VARCHAR(190), " +
+                "error_message VARCHAR(2000), template_id INT, message_parameters VARCHAR(2000))");
+        jdbcTemplate.execute("CREATE INDEX idx_job_logs_date ON atimis_logistic.job_logs (date)");
+        jdbcTemplate.execute("CREATE INDEX idx_job_logs_job ON atimis_logistic.job_logs (job_group, job_name, date)");
+
+        long secondsStep = Math.max(1, SEED_DAYS * 86_400L / rowCount);
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int index = 0; index < rowCount; index++) {
+            String jobGroup = "group" + index % JOB_GROUP_COUNT;
+            String jobName = "job" + index % 1000;
+            rows.add(new Object[]{Timestamp.valueOf(SEED_START_DATE.plusSeconds(index * secondsStep)),
+                    index % 10 == 0 ? "ERROR" : "INFO", jobGroup + "." + jobName, jobGroup, jobName,
+                    "Job executed, message " + index});
+            if (rows.size() == INSERT_BATCH_SIZE || index == rowCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO atimis_logistic.job_logs " +
+                        "(date, log_level, job_key, job_group, job_name, error_message) VALUES (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        criteria = createCriteria(filter);
+    }
+
+    //the catch-all query had no descending variant, so the descending page is compared with the ascending one
+    @Benchmark
+    public List<Map<String, Object>> catchAllQuery() {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", null)
+                .addValue("startDate", JobLogUtils.toUtcTimestamp(criteria.getStartDate()))
+                .addValue("endDate", JobLogUtils.toUtcTimestamp(criteria.getEndDate()))
+                .addValue("logLevel", null)
+                .addValue("jobKeyPattern", null)
+                .addValue("jobGroupPattern", criteria.getJobGroupPattern())
+                .addValue("jobNamePattern", null)
+                .addValue("triggerKeyPattern", null)
+                .addValue("triggerGroupPattern", null)
+                .addValue("triggerNamePattern", null)
+                .addValue("errorMessagePattern", null)
+                .addValue("cursorDate", JobLogUtils.toUtcTimestamp(criteria.getCursorDate()))
+                .addValue("cursorId", criteria.getCursorId());
+        return namedParameterJdbcTemplate.queryForList(CATCH_ALL_QUERY, parameters);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> builderQuery() {
+        JobLogQueryBuilder queryBuilder = JobLogQueryBuilder.fromCriteria(criteria, Collections.emptyList());
+        return namedParameterJdbcTemplate.queryForList(queryBuilder.toSql(PAGE_SIZE), queryBuilder.getParameters());
+    }
+
+    private static JobLogCriteria createCriteria(String filter) {
+        LocalDateTime startDate = SEED_START_DATE.plusDays(SEED_DAYS / 2);
+        JobLogCriteria.JobLogCriteriaBuilder criteriaBuilder = JobLogCriteria.builder()
+                .startDate(startDate)
+                .endDate(startDate.plusDays(1))
+                .sortDirection(JobLogSortDirection.ASC);
+        switch (filter) {
+            case "JOB_GROUP":
+                return criteriaBuilder.jobGroupPattern("group7").build();
+            case "NEXT_PAGE":
+                return criteriaBuilder.cursorDate(startDate.plusHours(12)).cursorId(0).build();
+            case "DESCENDING_NEXT_PAGE":
+                return criteriaBuilder
+                        .sortDirection(JobLogSortDirection.DESC)
+                        .cursorDate(startDate.plusHours(12))
+                        .cursorId(Integer.MAX_VALUE)
+                        .build();
+            default:
+                return criteriaBuilder.build();
+        }
+    }
+}
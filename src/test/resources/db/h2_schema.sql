@@ -0,0 +1,18 @@
+CREATE SCHEMA IF NOT EXISTS atimis_logistic;
+
+CREATE TABLE IF NOT EXISTS atimis_logistic.job_log_templates
+(
+    id       INT AUTO_INCREMENT PRIMARY KEY,
+    template VARCHAR(700) NOT NULL,
+    UNIQUE (template)
+);
+
+CREATE TABLE IF NOT EXISTS atimis_logistic.job_log_stats
+(
+    bucket      DATETIME     NOT NULL,
+    job_key     VARCHAR(255) NOT NULL DEFAULT '',
+    trigger_key VARCHAR(255) NOT NULL DEFAULT '',
+    log_level   VARCHAR(10)  NOT NULL,
+    log_count   BIGINT       NOT NULL,
+    PRIMARY KEY (bucket, job_key, trigger_key, log_level)
+);